@@ -1,41 +1,60 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient shareitServerHttpClient, WebClient.Builder webClientBuilder,
+                         @Qualifier("shareitServerConnector") Optional<ClientHttpConnector> shareitServerConnector,
+                         Scheduler shareitServerScheduler) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient))
+                        .build(),
+                buildWebClient(webClientBuilder, serverUrl + API_PREFIX, shareitServerConnector),
+                shareitServerScheduler
         );
     }
 
-    public ResponseEntity<Object> addBooking(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addBooking(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> addBookings(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsBookerAndStatus(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsBookerAndStatus(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -44,7 +63,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsOwnerAndStatus(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsOwnerAndStatus(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -53,11 +72,43 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> setApproval(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> getBookingsBookerAndStatusAfter(
+            long userId, BookingState state, String cursor, Integer size) {
+        return get("/seek" + seekQuery(cursor), userId, seekParameters(state, cursor, size));
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsOwnerAndStatusAfter(
+            long userId, BookingState state, String cursor, Integer size) {
+        return get("/owner/seek" + seekQuery(cursor), userId, seekParameters(state, cursor, size));
+    }
+
+    public Mono<Void> exportBookingsBooker(long userId, HttpServletResponse response) {
+        return getStream("/export", userId, response);
+    }
+
+    public Mono<Void> exportBookingsOwner(long userId, HttpServletResponse response) {
+        return getStream("/owner/export", userId, response);
+    }
+
+    public Mono<ResponseEntity<Object>> setApproval(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
 
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    private String seekQuery(String cursor) {
+        return cursor == null ? "?state={state}&size={size}" : "?state={state}&cursor={cursor}&size={size}";
+    }
+
+    private Map<String, Object> seekParameters(BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
 }
@@ -3,16 +3,22 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -22,24 +28,34 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final int BATCH_MAX_SIZE = 100;
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(
+    public Mono<ResponseEntity<Object>> addBooking(
             @RequestHeader(USER_ID) Long userId,
             @RequestBody @Valid BookItemRequestDto requestDto) {
         return bookingClient.addBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestBody @NotEmpty(message = "Список бронирований не может быть пустым.")
+            @Size(max = BATCH_MAX_SIZE, message = "Слишком много бронирований в одном запросе.")
+            List<@Valid BookItemRequestDto> requestDtos) {
+        return bookingClient.addBookings(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(
+    public Mono<ResponseEntity<Object>> getBooking(
             @RequestHeader(USER_ID) Long userId,
             @PathVariable Long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsBookerAndStatus(
+    public Mono<ResponseEntity<Object>> getBookingsBookerAndStatus(
             @RequestHeader(USER_ID) Long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
@@ -52,7 +68,7 @@ public class BookingController {
     }
 
     @GetMapping(path = "/owner")
-    public ResponseEntity<Object> getBookingsOwnerAndStatus(
+    public Mono<ResponseEntity<Object>> getBookingsOwnerAndStatus(
             @RequestHeader(USER_ID) Long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
@@ -64,8 +80,50 @@ public class BookingController {
         return bookingClient.getBookingsOwnerAndStatus(userId, state, from, size);
     }
 
+    @GetMapping(path = "/seek")
+    public Mono<ResponseEntity<Object>> getBookingsBookerAndStatusAfter(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(required = false) String cursor,
+            @Positive @RequestParam(defaultValue = "10") Integer size) {
+
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+
+        return bookingClient.getBookingsBookerAndStatusAfter(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner/seek")
+    public Mono<ResponseEntity<Object>> getBookingsOwnerAndStatusAfter(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(required = false) String cursor,
+            @Positive @RequestParam(defaultValue = "10") Integer size) {
+
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+
+        return bookingClient.getBookingsOwnerAndStatusAfter(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/export")
+    @ResponseStatus(code = HttpStatus.OK)
+    public Mono<Void> exportBookingsBooker(
+            @RequestHeader(USER_ID) Long userId,
+            HttpServletResponse response) {
+        return bookingClient.exportBookingsBooker(userId, response);
+    }
+
+    @GetMapping(path = "/owner/export")
+    @ResponseStatus(code = HttpStatus.OK)
+    public Mono<Void> exportBookingsOwner(
+            @RequestHeader(USER_ID) Long userId,
+            HttpServletResponse response) {
+        return bookingClient.exportBookingsOwner(userId, response);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> setBookingApproval(
+    public Mono<ResponseEntity<Object>> setBookingApproval(
             @RequestHeader(name = USER_ID) Long requesterId,
             @PathVariable Long bookingId,
             @RequestParam Boolean approved) {
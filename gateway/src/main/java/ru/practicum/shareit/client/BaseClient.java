@@ -1,85 +1,214 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient web;
+    protected final Scheduler scheduler;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, Scheduler scheduler) {
         this.rest = rest;
+        this.web = web;
+        this.scheduler = scheduler;
+    }
+
+    protected static WebClient buildWebClient(WebClient.Builder builder, String baseUrl,
+                                              Optional<ClientHttpConnector> connector) {
+        return connector
+                .map(clientHttpConnector -> builder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                        .clientConnector(clientHttpConnector)
+                        .build())
+                .orElse(null);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    protected Mono<ResponseEntity<Object>> postStream(
+            String path, long userId, MediaType contentType, InputStream body) {
+        if (web == null) {
+            return Mono.fromSupplier(() -> exchangeStream(path, userId, contentType, body)).subscribeOn(scheduler);
+        }
+
+        // Чтение тела запроса блокирует, поэтому оно идет на планировщике, а не на потоках Netty
+        Flux<DataBuffer> content = DataBufferUtils.readInputStream(
+                () -> body, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE).subscribeOn(scheduler);
+
+        return web.post()
+                .uri(path)
+                .headers(headers -> headers.addAll(defaultHeaders(userId)))
+                .contentType(contentType)
+                .body(BodyInserters.fromDataBuffers(content))
+                .exchangeToMono(response -> response.toEntity(Object.class))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    // Ответ фиксируется до завершения Mono: статус сервера уже не перезапишет асинхронная обработка Spring MVC
+    protected Mono<Void> getStream(String path, long userId, HttpServletResponse response) {
+        if (web == null) {
+            return Mono.<Void>fromRunnable(() -> {
+                copyStream(path, userId, response);
+                flushBuffer(response);
+            }).subscribeOn(scheduler);
+        }
+
+        return web.get()
+                .uri(path)
+                .headers(headers -> headers.addAll(defaultHeaders(userId)))
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .exchangeToMono(shareitServerResponse -> {
+                    response.setStatus(shareitServerResponse.rawStatusCode());
+                    response.setContentType(streamContentType(shareitServerResponse.headers().asHttpHeaders()));
+                    // Запись в ответ сервлета блокирует, поэтому она идет на планировщике, а не на потоках Netty
+                    return DataBufferUtils.write(
+                                    shareitServerResponse.bodyToFlux(DataBuffer.class).publishOn(scheduler),
+                                    outputStream(response))
+                            .map(DataBufferUtils::release)
+                            .then(Mono.fromRunnable(() -> flushBuffer(response)));
+                });
+    }
+
+    private ResponseEntity<Object> exchangeStream(String path, long userId, MediaType contentType, InputStream body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setContentType(contentType);
+                StreamUtils.copy(body, request.getBody());
+            }, rest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private void copyStream(String path, long userId, HttpServletResponse response) {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+            }, shareitServerResponse -> {
+                response.setStatus(shareitServerResponse.getRawStatusCode());
+                response.setContentType(streamContentType(shareitServerResponse.getHeaders()));
+                StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try {
+                StreamUtils.copy(e.getResponseBodyAsByteArray(), response.getOutputStream());
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (web == null) {
+            return Mono.fromSupplier(() -> exchange(method, path, userId, parameters, body)).subscribeOn(scheduler);
+        }
+
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> response.toEntity(Object.class))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
@@ -95,6 +224,28 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private static OutputStream outputStream(HttpServletResponse response) {
+        try {
+            return response.getOutputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flushBuffer(HttpServletResponse response) {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Без заголовка от сервера String.valueOf дал бы строку "null", поэтому выгрузка считается NDJSON
+    private static String streamContentType(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null ? contentType.toString() : MediaType.APPLICATION_NDJSON_VALUE;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            @Value("${shareit-server.http-client.max-connections}") int maxConnections,
+            @Value("${shareit-server.http-client.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${shareit-server.http-client.validate-after-inactivity}") Duration validateAfterInactivity) {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager shareitServerConnectionManager,
+            @Value("${shareit-server.http-client.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.http-client.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.http-client.connection-request-timeout}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http-client.keep-alive}") Duration keepAlive,
+            @Value("${shareit-server.http-client.idle-eviction}") Duration idleEviction) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+
+        // Сервер не присылает Keep-Alive, без ограничения соединение считалось бы вечным
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+        };
+
+        // Клиент владеет пулом: только тогда HttpClientBuilder запускает поток вытеснения простаивающих соединений
+        return HttpClientBuilder.create()
+                .setConnectionManager(shareitServerConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "reactive")
+    public ClientHttpConnector shareitServerConnector(
+            @Value("${shareit-server.http-client.max-connections}") int maxConnections,
+            @Value("${shareit-server.http-client.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.http-client.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.http-client.connection-request-timeout}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http-client.keep-alive}") Duration keepAlive,
+            @Value("${shareit-server.http-client.idle-eviction}") Duration idleEviction) {
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(keepAlive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+
+        return new ReactorClientHttpConnector(reactor.netty.http.client.HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout));
+    }
+
+    // Блокирующие вызовы сервера и запись потоков в ответ не занимают поток Tomcat, а выполняются здесь.
+    // Потоков столько же, сколько соединений в пуле: больше одновременных вызовов пул все равно не даст
+    @Bean(destroyMethod = "dispose")
+    public Scheduler shareitServerScheduler(
+            @Value("${shareit-server.http-client.max-connections}") int maxConnections,
+            @Value("${shareit.virtual-threads.enabled}") boolean virtualThreads) {
+
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "shareit-server");
+        }
+        return Schedulers.newBoundedElastic(
+                maxConnections, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "shareit-server");
+    }
+
+    @Bean
+    public MeterBinder shareitServerConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager shareitServerConnectionManager) {
+
+        return new PoolingHttpClientConnectionManagerMetricsBinder(shareitServerConnectionManager, "shareit-server");
+    }
+}
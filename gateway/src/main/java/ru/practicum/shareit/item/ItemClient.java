@@ -1,17 +1,27 @@
 package ru.practicum.shareit.item;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,30 +29,55 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient shareitServerHttpClient, WebClient.Builder webClientBuilder,
+                      @Qualifier("shareitServerConnector") Optional<ClientHttpConnector> shareitServerConnector,
+                      Scheduler shareitServerScheduler) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> {
+                            HttpComponentsClientHttpRequestFactory requestFactory =
+                                    new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+                            requestFactory.setBufferRequestBody(false);
+                            return requestFactory;
+                        })
+                        .build(),
+                buildWebClient(webClientBuilder, serverUrl + API_PREFIX, shareitServerConnector),
+                shareitServerScheduler
         );
     }
 
-    public ResponseEntity<Object> addItem(long ownerId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(long ownerId, ItemDto itemDto) {
 
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> addComment(long authorId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> importItems(long ownerId, MediaType contentType, InputStream body) {
+
+        return postStream("/import", ownerId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(long authorId, long itemId, CommentDto commentDto) {
 
         return post("/" + itemId + "/comment", authorId, commentDto);
     }
 
-    public ResponseEntity<Object> getItem(long requesterId, long id) {
+    public Mono<ResponseEntity<Object>> getItem(long requesterId, long id) {
         return get("/" + id, requesterId);
     }
 
-    public ResponseEntity<Object> getOwnerItem(long ownerId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItemAvailability(
+            long requesterId, long id, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+
+        return get("/" + id + "/availability?from={from}&to={to}", requesterId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerItem(long ownerId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -51,7 +86,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> searchAvailableItem(
+    public Mono<ResponseEntity<Object>> searchAvailableItem(
             long ownerId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
@@ -62,7 +97,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> updateItem(long ownerId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(long ownerId, long itemId, ItemDto itemDto) {
 
         return patch("/" + itemId, ownerId, itemDto);
     }
@@ -2,16 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Validated
 @Controller
@@ -24,14 +30,22 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(
+    public Mono<ResponseEntity<Object>> addItem(
             @RequestHeader(name = USER_ID) Long ownerId,
             @RequestBody @Valid ItemDto itemDto) {
         return itemClient.addItem(ownerId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(
+            @RequestHeader(name = USER_ID) Long ownerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        return itemClient.importItems(ownerId, contentType, body);
+    }
+
     @PostMapping(path = "/{itemId}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addComment(
             @RequestHeader(name = USER_ID) Long authorId,
             @PathVariable Long itemId,
             @RequestBody @Valid CommentDto commentDto) {
@@ -39,14 +53,23 @@ public class ItemController {
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<Object>> getItemById(
             @RequestHeader(name = USER_ID) Long requesterId,
             @PathVariable Long id) {
         return itemClient.getItem(requesterId, id);
     }
 
+    @GetMapping(path = "/{id}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(
+            @RequestHeader(name = USER_ID) Long requesterId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getItemAvailability(requesterId, id, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getItemsOwner(
+    public Mono<ResponseEntity<Object>> getItemsOwner(
             @RequestHeader(name = USER_ID) Long ownerId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size) {
@@ -54,7 +77,7 @@ public class ItemController {
     }
 
     @GetMapping(path = "/search")
-    public ResponseEntity<Object> searchAvailableItem(
+    public Mono<ResponseEntity<Object>> searchAvailableItem(
             @RequestHeader(name = USER_ID) Long ownerId,
             @RequestParam String text,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
@@ -63,7 +86,7 @@ public class ItemController {
     }
 
     @PatchMapping(path = "/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @RequestHeader(name = USER_ID) Long ownerId,
             @PathVariable Long itemId,
             @RequestBody ItemDto itemDto) {
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -23,27 +24,27 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItemRequest(
+    public Mono<ResponseEntity<Object>> addItemRequest(
             @RequestHeader(name = USER_ID) Long requesterId,
             @RequestBody @Valid ItemRequestDto requestDto) {
         return requestClient.addItemRequest(requesterId, requestDto);
     }
 
     @GetMapping(path = "/{requestId}")
-    public ResponseEntity<Object> getItemRequest(
+    public Mono<ResponseEntity<Object>> getItemRequest(
             @RequestHeader(name = USER_ID) Long requesterId,
             @PathVariable Long requestId) {
         return requestClient.getItemRequest(requesterId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnItemRequests(
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(
             @RequestHeader(name = USER_ID) Long requesterId) {
         return requestClient.getOwnItemRequests(requesterId);
     }
 
     @GetMapping(path = "/all")
-    public ResponseEntity<Object> getOtherUsersRequests(
+    public Mono<ResponseEntity<Object>> getOtherUsersRequests(
             @RequestHeader(name = USER_ID) Long requesterId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size) {
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.request;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class RequestClient extends BaseClient {
@@ -18,29 +25,34 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient shareitServerHttpClient, WebClient.Builder webClientBuilder,
+                         @Qualifier("shareitServerConnector") Optional<ClientHttpConnector> shareitServerConnector,
+                         Scheduler shareitServerScheduler) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient))
+                        .build(),
+                buildWebClient(webClientBuilder, serverUrl + API_PREFIX, shareitServerConnector),
+                shareitServerScheduler
         );
     }
 
-    public ResponseEntity<Object> addItemRequest(long requesterId, ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addItemRequest(long requesterId, ItemRequestDto requestDto) {
         return post("", requesterId, requestDto);
     }
 
-    public ResponseEntity<Object> getItemRequest(long requesterId, long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(long requesterId, long requestId) {
         return get("/" + requestId, requesterId);
     }
 
-    public ResponseEntity<Object> getOwnItemRequests(long requesterId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(long requesterId) {
 
         return get("", requesterId);
     }
 
-    public ResponseEntity<Object> getOtherUsersRequests(long requesterId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getOtherUsersRequests(long requesterId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
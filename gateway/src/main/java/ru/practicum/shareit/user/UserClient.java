@@ -1,18 +1,25 @@
 package ru.practicum.shareit.user;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.util.Optional;
 
 @Service
 public class UserClient extends BaseClient {
@@ -20,35 +27,40 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient shareitServerHttpClient, WebClient.Builder webClientBuilder,
+                      @Qualifier("shareitServerConnector") Optional<ClientHttpConnector> shareitServerConnector,
+                      Scheduler shareitServerScheduler) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient))
+                        .build(),
+                buildWebClient(webClientBuilder, serverUrl + API_PREFIX, shareitServerConnector),
+                shareitServerScheduler
         );
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
 
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUser(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable long id) {
 
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(@RequestBody @Valid UserDto userDto, @PathVariable long id) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Valid UserDto userDto, @PathVariable long id) {
 
         return patch("/" + id, userDto);
     }
 
-    public void deleteUser(@PathVariable long id) {
-        delete("/" + id);
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable long id) {
+        return delete("/" + id);
     }
 }
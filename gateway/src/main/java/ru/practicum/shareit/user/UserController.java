@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -22,29 +23,29 @@ public class UserController {
 
     @PostMapping
     @Validated(value = UserValidation.FullValidation.class)
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserDto userDto) {
         return userClient.addUser(userDto);
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         return userClient.getUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return userClient.getUsers();
     }
 
     @PatchMapping(path = "/{id}")
     @Validated(value = UserValidation.PartialValidation.class)
-    public ResponseEntity<Object> updateUser(@RequestBody @Valid UserDto userDto, @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Valid UserDto userDto, @PathVariable Long id) {
         return userClient.updateUser(userDto, id);
     }
 
     @DeleteMapping(path = "/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public void deleteUserById(@PathVariable Long id) {
-        userClient.deleteUser(id);
+    public Mono<Void> deleteUserById(@PathVariable Long id) {
+        return userClient.deleteUser(id).then();
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BaseClientTest {
+
+    private static final String EXPORT = "{\"id\":1}\n{\"id\":2}\n";
+
+    private HttpServer server;
+    private String serverUrl;
+    private Scheduler scheduler;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/export", exchange -> {
+            byte[] body = EXPORT.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.createContext("/import", exchange -> {
+            String received = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = ("{\"lines\":" + received.lines().count() + ",\"contentType\":\""
+                    + exchange.getRequestHeaders().getFirst("Content-Type") + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+        scheduler = Schedulers.newBoundedElastic(2, 10, "test");
+    }
+
+    @AfterEach
+    public void stopServer() {
+        scheduler.dispose();
+        server.stop(0);
+    }
+
+    @Test
+    public void getStreamWithoutContentTypeTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        blockingClient().getStream("/export", 1L, response).block();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        assertEquals(EXPORT, response.getContentAsString());
+    }
+
+    @Test
+    public void getStreamReactiveTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        reactiveClient().getStream("/export", 1L, response).block();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        assertEquals(EXPORT, response.getContentAsString());
+    }
+
+    @Test
+    public void postStreamTest() {
+        for (BaseClient client : new BaseClient[]{blockingClient(), reactiveClient()}) {
+            ResponseEntity<Object> response = client.postStream("/import", 1L, MediaType.APPLICATION_NDJSON,
+                    new ByteArrayInputStream(EXPORT.getBytes(StandardCharsets.UTF_8))).block();
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(Map.of("lines", 2, "contentType", MediaType.APPLICATION_NDJSON_VALUE), response.getBody());
+        }
+    }
+
+    private BaseClient blockingClient() {
+        return new BaseClient(new RestTemplateBuilder().rootUri(serverUrl).build(), null, scheduler);
+    }
+
+    private BaseClient reactiveClient() {
+        return new BaseClient(new RestTemplateBuilder().rootUri(serverUrl).build(),
+                WebClient.builder().baseUrl(serverUrl).build(), scheduler);
+    }
+}
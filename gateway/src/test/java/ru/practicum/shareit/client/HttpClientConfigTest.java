@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldEvictIdleConnectionsTest() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager = config.shareitServerConnectionManager(
+                10, 10, Duration.ofSeconds(2));
+
+        try (CloseableHttpClient client = config.shareitServerHttpClient(connectionManager, Duration.ofSeconds(2),
+                Duration.ofSeconds(2), Duration.ofSeconds(2), Duration.ofMinutes(1), Duration.ofMillis(100))) {
+            EntityUtils.consume(client.execute(new HttpGet(
+                    "http://localhost:" + server.getAddress().getPort() + "/")).getEntity());
+            assertEquals(1, connectionManager.getTotalStats().getAvailable());
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (connectionManager.getTotalStats().getAvailable() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, connectionManager.getTotalStats().getAvailable());
+        }
+    }
+}
@@ -2,13 +2,21 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -26,6 +34,14 @@ public class BookingController {
         return new ResponseEntity<>(bookingService.addBooking(bookingDtoRequest, bookerId), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> addBookings(
+            @RequestHeader(name = USER_ID) Long bookerId,
+            @RequestBody List<BookingDtoRequest> bookingDtoRequests) {
+
+        return ResponseEntity.ok(bookingService.addBookings(bookingDtoRequests, bookerId));
+    }
+
     @GetMapping(path = "/{bookingId}")
     public ResponseEntity<BookingDto> getBooking(
             @RequestHeader(name = USER_ID) Long requesterId,
@@ -55,6 +71,44 @@ public class BookingController {
                 null, ownerId, state, from, size));
     }
 
+    @GetMapping(path = "/export")
+    public void exportBookingsBooker(
+            @RequestHeader(name = USER_ID) Long bookerId,
+            HttpServletResponse response) {
+
+        bookingService.exportBookings(bookerId, null, () -> openNdjsonOutput(response));
+    }
+
+    @GetMapping(path = "/owner/export")
+    public void exportBookingsOwner(
+            @RequestHeader(name = USER_ID) Long ownerId,
+            HttpServletResponse response) {
+
+        bookingService.exportBookings(null, ownerId, () -> openNdjsonOutput(response));
+    }
+
+    @GetMapping(path = "/seek")
+    public ResponseEntity<BookingPageDto> getBookingsBookerAndStatusAfter(
+            @RequestHeader(name = USER_ID) Long bookerId,
+            @RequestParam String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer size) {
+
+        return ResponseEntity.ok(bookingService.getBookingsUserAndStateAfter(
+                bookerId, null, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner/seek")
+    public ResponseEntity<BookingPageDto> getBookingsOwnerAndStatusAfter(
+            @RequestHeader(name = USER_ID) Long ownerId,
+            @RequestParam String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer size) {
+
+        return ResponseEntity.ok(bookingService.getBookingsUserAndStateAfter(
+                null, ownerId, state, cursor, size));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> setBookingApproval(
             @RequestHeader(name = USER_ID) Long requesterId,
@@ -63,4 +117,13 @@ public class BookingController {
 
         return ResponseEntity.ok(bookingService.setApproval(bookingId, approved, requesterId));
     }
+
+    private OutputStream openNdjsonOutput(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try {
+            return response.getOutputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
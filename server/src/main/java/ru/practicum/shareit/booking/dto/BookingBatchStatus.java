@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingBatchStatus {
+    CREATED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID
+}
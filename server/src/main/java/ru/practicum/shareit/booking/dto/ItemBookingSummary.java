@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+    private BookingDtoShort lastBooking;
+    private BookingDtoShort nextBooking;
+    // Ближайшее начало или окончание бронирования, после которого последнее и следующее могут смениться
+    private LocalDateTime expiresAt;
+}
@@ -6,6 +6,7 @@ import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -26,6 +27,16 @@ public interface BookingMapper {
     @Mapping(source = "booking.endTime", target = "end")
     BookingDto mapToDto(Booking booking, BookingStatus status);
 
+    @Mapping(source = "booking.startTime", target = "start")
+    @Mapping(source = "booking.endTime", target = "end")
+    @Mapping(source = "booking.item.request.id", target = "item.requestId")
+    @Mapping(target = "item.lastBooking", ignore = true)
+    @Mapping(target = "item.nextBooking", ignore = true)
+    @Mapping(target = "item.comments", ignore = true)
+    BookingDto mapToExportDto(Booking booking, BookingStatus status);
+
     @Mapping(source = "booking.booker.id", target = "bookerId")
     BookingDtoShort mapToShortDto(Booking booking);
+
+    BookingDtoShort mapToShortDto(BookingShortView booking);
 }
@@ -17,16 +17,24 @@ import java.util.Objects;
 @Builder
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = "Booking.withItemDetailsAndBooker",
+        attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "comments",
+                        subgraph = "comments")),
+                @NamedSubgraph(name = "comments", attributeNodes = @NamedAttributeNode("author"))
+        })
 @Generated
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_sequence")
+    @SequenceGenerator(name = "bookings_sequence", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "for_item", referencedColumnName = "item_id")
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "by_user", referencedColumnName = "user_id")
     private User booker;
     @Column(name = "start_time")
@@ -1,68 +1,270 @@
 package ru.practicum.shareit.booking.repository;
 
 import lombok.Generated;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingBoundaryView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 @Generated
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> getAllByBookerIdOrItemOwnerIdOrderByStartTimeDesc(Long bookerId, Long ownerId, Pageable pageable);
+    @EntityGraph("Booking.withItemDetailsAndBooker")
+    Optional<Booking> findDetailedById(long bookingId);
 
-    Collection<Booking> getAllByItemOwnerId(long ownerId);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    Stream<Booking> streamAllByBooker(long bookerId);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE (b.booker.id = ?1 OR b.item.owner.id = ?2) " +
-            "AND (b.approved = ?3 OR ?3 IS NULL AND b.approved IS NULL)" +
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    Stream<Booking> streamAllByOwner(long ownerId);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
             "ORDER BY b.startTime DESC"
     )
-    Page<Booking> getWaitingOrRejectedBookings(
-            Long bookerId, Long ownerId, Boolean approved, Pageable pageable);
+    List<Booking> getAllByBookerIdOrderByStartTimeDesc(long bookerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE (b.booker.id = ?1 OR b.item.owner.id = ?2) " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND (b.approved = ?2 OR ?2 IS NULL AND b.approved IS NULL) " +
+            "ORDER BY b.startTime DESC"
+    )
+    List<Booking> getWaitingOrRejectedBookingsByBooker(long bookerId, Boolean approved, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
             "AND b.approved IS TRUE " +
             "AND CURRENT_TIMESTAMP > b.endTime " +
             "ORDER BY b.startTime DESC"
     )
-    Page<Booking> getPastBookingsByBookerIdOrOwnerId(Long bookerId, Long ownerId, Pageable pageable);
+    List<Booking> getPastBookingsByBooker(long bookerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = ?1 " +
-            "AND b.endTime < CURRENT_TIMESTAMP " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND b.startTime < CURRENT_TIMESTAMP " +
+            "AND CURRENT_TIMESTAMP < b.endTime " +
             "ORDER BY b.startTime DESC"
     )
-    Collection<Booking> getPastBookingsByItemId(long itemId);
+    List<Booking> getCurrentBookingsByBooker(long bookerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE (b.booker.id = ?1 OR b.item.owner.id = ?2) " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND CURRENT_TIMESTAMP < b.startTime " +
+            "ORDER BY b.startTime DESC"
+    )
+    List<Booking> getFutureBookingsByBooker(long bookerId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getAllBookingsByBookerAfter(
+            long bookerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND (b.approved = ?2 OR ?2 IS NULL AND b.approved IS NULL) " +
+            "AND (b.startTime < ?3 OR b.startTime = ?3 AND b.id < ?4) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getWaitingOrRejectedBookingsByBookerAfter(
+            long bookerId, Boolean approved, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND b.approved IS TRUE " +
+            "AND CURRENT_TIMESTAMP > b.endTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getPastBookingsByBookerAfter(
+            long bookerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
             "AND b.startTime < CURRENT_TIMESTAMP " +
             "AND CURRENT_TIMESTAMP < b.endTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getCurrentBookingsByBookerAfter(
+            long bookerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker bk " +
+            "WHERE bk.id = ?1 " +
+            "AND CURRENT_TIMESTAMP < b.startTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getFutureBookingsByBookerAfter(
+            long bookerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN b.item i " +
+            "WHERE i.owner.id = ?1"
+    )
+    Collection<Booking> getAllByItemOwnerId(long ownerId);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
             "ORDER BY b.startTime DESC"
     )
-    Page<Booking> getCurrentBookings(Long bookerId, Long ownerId, Pageable pageable);
+    List<Booking> getAllByItemOwnerIdOrderByStartTimeDesc(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE (b.booker.id = ?1 OR b.item.owner.id = ?2) " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND (b.approved = ?2 OR ?2 IS NULL AND b.approved IS NULL) " +
+            "ORDER BY b.startTime DESC"
+    )
+    List<Booking> getWaitingOrRejectedBookingsByOwner(long ownerId, Boolean approved, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.approved IS TRUE " +
+            "AND CURRENT_TIMESTAMP > b.endTime " +
+            "ORDER BY b.startTime DESC"
+    )
+    List<Booking> getPastBookingsByOwner(long ownerId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.startTime < CURRENT_TIMESTAMP " +
+            "AND CURRENT_TIMESTAMP < b.endTime " +
+            "ORDER BY b.startTime DESC"
+    )
+    List<Booking> getCurrentBookingsByOwner(long ownerId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
             "AND CURRENT_TIMESTAMP < b.startTime " +
             "ORDER BY b.startTime DESC"
     )
-    Page<Booking> getFutureBookings(Long bookerId, Long ownerId, Pageable pageable);
+    List<Booking> getFutureBookingsByOwner(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getAllBookingsByOwnerAfter(
+            long ownerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND (b.approved = ?2 OR ?2 IS NULL AND b.approved IS NULL) " +
+            "AND (b.startTime < ?3 OR b.startTime = ?3 AND b.id < ?4) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getWaitingOrRejectedBookingsByOwnerAfter(
+            long ownerId, Boolean approved, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.approved IS TRUE " +
+            "AND CURRENT_TIMESTAMP > b.endTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getPastBookingsByOwnerAfter(
+            long ownerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.startTime < CURRENT_TIMESTAMP " +
+            "AND CURRENT_TIMESTAMP < b.endTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getCurrentBookingsByOwnerAfter(
+            long ownerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND CURRENT_TIMESTAMP < b.startTime " +
+            "AND (b.startTime < ?2 OR b.startTime = ?2 AND b.id < ?3) " +
+            "ORDER BY b.startTime DESC, b.id DESC"
+    )
+    List<Booking> getFutureBookingsByOwnerAfter(
+            long ownerId, LocalDateTime startTime, long id, Pageable pageable);
+
+    @Query(value = "SELECT ranked.booking_id AS id, ranked.by_user AS bookerId, ranked.for_item AS itemId " +
+            "FROM (SELECT b.booking_id, b.by_user, b.for_item, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.for_item " +
+            "ORDER BY CASE WHEN b.end_time > CURRENT_TIMESTAMP THEN 0 ELSE 1 END, b.start_time DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.for_item IN (?1) " +
+            "AND b.start_time < CURRENT_TIMESTAMP " +
+            "AND (b.end_time < CURRENT_TIMESTAMP OR b.approved IS NULL OR b.approved = TRUE)) AS ranked " +
+            "WHERE ranked.rn = 1",
+            nativeQuery = true
+    )
+    Collection<BookingShortView> getLastBookingsByItemIds(Collection<Long> itemIds);
+
+    @Query(value = "SELECT ranked.booking_id AS id, ranked.by_user AS bookerId, ranked.for_item AS itemId " +
+            "FROM (SELECT b.booking_id, b.by_user, b.for_item, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.for_item ORDER BY b.start_time ASC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.for_item IN (?1) " +
+            "AND b.start_time > CURRENT_TIMESTAMP " +
+            "AND (b.approved IS NULL OR b.approved = TRUE)) AS ranked " +
+            "WHERE ranked.rn = 1",
+            nativeQuery = true
+    )
+    Collection<BookingShortView> getNextBookingsByItemIds(Collection<Long> itemIds);
+
+    @Query("SELECT b.item.id AS itemId, " +
+            "MIN(CASE WHEN b.startTime > CURRENT_TIMESTAMP THEN b.startTime ELSE b.endTime END) AS boundary " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.endTime > CURRENT_TIMESTAMP " +
+            "GROUP BY b.item.id")
+    Collection<BookingBoundaryView> getNextBoundariesByItemIds(Collection<Long> itemIds);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.item.id = ?1 " +
             "AND (b.approved = TRUE OR b.approved IS NULL) " +
-            "AND b.endTime > CURRENT_TIMESTAMP " +
-            "ORDER BY b.startTime ASC"
+            "AND b.startTime < ?3 " +
+            "AND b.endTime > ?2"
+    )
+    boolean existsOverlappingBooking(long itemId, LocalDateTime startTime, LocalDateTime endTime);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND (b.approved = TRUE OR b.approved IS NULL) " +
+            "AND b.endTime > ?2"
+    )
+    List<BookingIntervalView> getActiveBookingIntervals(long itemId, LocalDateTime after);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.startTime AS startTime, b.endTime AS endTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN ?1 " +
+            "AND (b.approved = TRUE OR b.approved IS NULL) " +
+            "AND b.endTime > ?2"
     )
-    Collection<Booking> getActiveBookings(long itemId);
+    List<BookingIntervalView> getActiveBookingIntervalsByItemIds(Collection<Long> itemIds, LocalDateTime after);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE (b.booker.id = ?1 AND b.item.id = ?2) " +
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class BookingIntervalCache {
+
+    private final BookingRepository bookingRepository;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final Map<Long, CachedIntervals> intervalsByItem;
+    private long version;
+
+    public BookingIntervalCache(BookingRepository bookingRepository,
+                                Ticker cacheTicker,
+                                @Value("${shareit.booking.interval-cache-size}") int cacheSize,
+                                @Value("${shareit.booking.interval-cache-ttl}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.ticker = cacheTicker;
+        this.ttlNanos = ttl.toNanos();
+        this.intervalsByItem = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedIntervals> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Бронирования могут менять и другие экземпляры сервера, поэтому занятость решает БД.
+    // Если загруженные интервалы с ней расходятся, они устарели и загружаются заново при следующем обращении
+    public void evictIfStale(long itemId, LocalDateTime startTime, LocalDateTime endTime, boolean occupied) {
+        CachedIntervals cached;
+
+        synchronized (this) {
+            cached = intervalsByItem.get(itemId);
+        }
+        if (cached != null && cached.intervals.isOccupied(startTime, endTime) != occupied) {
+            evict(itemId);
+            log.debug("Интервалы бронирований вещи с id={} разошлись с БД и вытеснены", itemId);
+        }
+    }
+
+    public List<FreeWindowDto> getFreeWindows(long itemId, LocalDateTime from, LocalDateTime to) {
+        return getIntervals(itemId).getFreeWindows(from, to);
+    }
+
+    // Бронирование добавляется до коммита, пока строка вещи заблокирована, и следующий addBooking уже видит его.
+    // После завершения транзакции версия меняется еще раз: интервалы, загруженные до коммита без блокировки,
+    // не попадут в кэш, а уже попавшие получат бронирование повторно
+    public void addBooking(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime startTime = booking.getStartTime();
+        LocalDateTime endTime = booking.getEndTime();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    update(itemId, intervals -> intervals.add(bookingId, startTime, endTime));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        update(itemId, intervals -> intervals.add(bookingId, startTime, endTime));
+                    } else {
+                        update(itemId, intervals -> intervals.remove(bookingId));
+                    }
+                }
+            });
+        } else {
+            update(itemId, intervals -> intervals.add(bookingId, startTime, endTime));
+        }
+    }
+
+    public void removeBooking(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(itemId, intervals -> intervals.remove(bookingId));
+                }
+            });
+        } else {
+            update(itemId, intervals -> intervals.remove(bookingId));
+        }
+    }
+
+    private ItemBookingIntervals getIntervals(long itemId) {
+        ItemBookingIntervals intervals;
+        CachedIntervals cached;
+        long loadVersion;
+
+        // Изменения других экземпляров сервера видны в кэше не позже, чем через время жизни записи
+        synchronized (this) {
+            cached = intervalsByItem.get(itemId);
+            if (cached != null && ticker.read() - cached.loadedAt < ttlNanos) {
+                return cached.intervals;
+            }
+            loadVersion = version;
+        }
+
+        intervals = new ItemBookingIntervals(
+                bookingRepository.getActiveBookingIntervals(itemId, LocalDateTime.now()));
+
+        // Изменение, сделанное во время загрузки, может в нее не попасть, поэтому такие интервалы используются один раз
+        synchronized (this) {
+            if (loadVersion == version) {
+                intervalsByItem.put(itemId, new CachedIntervals(intervals, ticker.read()));
+                log.debug("Загружены интервалы бронирований вещи с id={}", itemId);
+            }
+        }
+        return intervals;
+    }
+
+    private synchronized void evict(long itemId) {
+        version++;
+        intervalsByItem.remove(itemId);
+    }
+
+    private synchronized void update(long itemId, Consumer<ItemBookingIntervals> change) {
+        CachedIntervals cached = intervalsByItem.get(itemId);
+
+        version++;
+        if (cached != null) {
+            change.accept(cached.intervals);
+        }
+    }
+
+    private static class CachedIntervals {
+        private final ItemBookingIntervals intervals;
+        private final long loadedAt;
+
+        private CachedIntervals(ItemBookingIntervals intervals, long loadedAt) {
+            this.intervals = intervals;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,25 +1,44 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ActualItemBooking;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public interface BookingService {
 
     BookingDto addBooking(BookingDtoRequest bookingDtoRequest, long bookerId);
 
+    List<BookingBatchResultDto> addBookings(List<BookingDtoRequest> bookingDtoRequests, long bookerId);
+
     BookingDto getBookingDto(long bookingId, long requesterId);
 
     Collection<BookingDto> getBookingsUserAndState(
             Long bookerId, Long ownerId, String state, int startingIndex, Integer collectionSize);
 
+    BookingPageDto getBookingsUserAndStateAfter(
+            Long bookerId, Long ownerId, String state, String cursor, Integer collectionSize);
+
+    void exportBookings(Long bookerId, Long ownerId, Supplier<OutputStream> outputSupplier);
+
     Map<ActualItemBooking, BookingDtoShort> getLastAndNextBookingByItem(Item item, long requesterId);
 
+    Map<Long, Map<ActualItemBooking, BookingDtoShort>> getLastAndNextBookingsByItems(
+            Collection<Item> items, long requesterId);
+
+    List<FreeWindowDto> getFreeWindows(long itemId, LocalDateTime from, LocalDateTime to);
+
     BookingDto setApproval(long bookingId, boolean approved, long requesterId);
 
     boolean dontMakeBookings(long bookerId, long itemId);
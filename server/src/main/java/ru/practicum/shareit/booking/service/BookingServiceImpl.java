@@ -1,14 +1,24 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchStatus;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -18,11 +28,21 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ActualItemBooking;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.dto.BookingStatus.*;
 import static ru.practicum.shareit.item.service.ActualItemBooking.LAST;
@@ -33,20 +53,289 @@ import static ru.practicum.shareit.item.service.ActualItemBooking.NEXT;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    private static final String EXCLUSION_VIOLATION_STATE = "23P01";
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_item_time";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final BookingMapper mapper;
     private final ItemRepository itemRepository;
+    private final BookingIntervalCache intervalCache;
+    private final ItemBookingSummaryCache summaryCache;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.booking.batch-max-size}")
+    private int batchMaxSize;
 
     @Override
     @Transactional
     public BookingDto addBooking(BookingDtoRequest bookingDto, long bookerId) {
+        Booking booking = makeBooking(
+                bookingDto,
+                bookerId,
+                () -> itemRepository.findLockedById(bookingDto.getItemId()),
+                () -> userService.getUserById(bookerId),
+                List.of(),
+                this::isOccupied);
+
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw bookingTimeOccupied(booking);
+            }
+            throw e;
+        }
+        intervalCache.addBooking(booking);
+        summaryCache.invalidate(booking.getItem().getId());
+        log.debug("Добавлено новое бронирование: {}", booking);
+        return mapper.mapToDto(booking, this.statusChange(booking));
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addBookings(List<BookingDtoRequest> bookingDtos, long bookerId) {
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        Map<Long, Item> items;
+        Map<Long, ItemBookingIntervals> intervalsByItem = new HashMap<>();
+        User booker;
+
+        if (bookingDtos.size() > batchMaxSize) {
+            throw new ValidationException(String.format("Ошибка пакетного добавления бронирований: " +
+                    "передано %d бронирований при максимуме %d.", bookingDtos.size(), batchMaxSize));
+        }
+        booker = userService.getUserById(bookerId);
+        items = itemRepository.findLockedByIdInOrderById(bookingDtos.stream()
+                        .map(BookingDtoRequest::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        // Вещи уже заблокированы, поэтому загруженные одним запросом интервалы не устареют до коммита
+        if (!items.isEmpty()) {
+            items.keySet().forEach(itemId -> intervalsByItem.put(itemId, new ItemBookingIntervals(List.of())));
+            bookingRepository.getActiveBookingIntervalsByItemIds(items.keySet(), LocalDateTime.now())
+                    .forEach(interval -> intervalsByItem.get(interval.getItemId())
+                            .add(interval.getId(), interval.getStartTime(), interval.getEndTime()));
+        }
+
+        for (BookingDtoRequest bookingDto : bookingDtos) {
+            try {
+                bookings.add(makeBooking(
+                        bookingDto,
+                        bookerId,
+                        () -> Optional.ofNullable(items.get(bookingDto.getItemId())),
+                        () -> booker,
+                        bookings,
+                        (itemId, start, end) -> intervalsByItem.get(itemId).isOccupied(start, end)));
+                results.add(BookingBatchResultDto.builder().status(BookingBatchStatus.CREATED).build());
+
+            } catch (DuplicateException e) {
+                results.add(makeBatchResult(BookingBatchStatus.CONFLICT, e.getMessage()));
+            } catch (NotFoundException e) {
+                results.add(makeBatchResult(BookingBatchStatus.NOT_FOUND, e.getMessage()));
+            } catch (ValidationException e) {
+                results.add(makeBatchResult(BookingBatchStatus.INVALID, e.getMessage()));
+            }
+        }
+
+        try {
+            bookingRepository.saveAllAndFlush(bookings);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new DuplicateException("Ошибка пакетного добавления бронирований: " +
+                        "временной промежуток полностью или частично занят.");
+            }
+            throw e;
+        }
+
+        Iterator<Booking> savedBookings = bookings.iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getStatus() == BookingBatchStatus.CREATED) {
+                Booking booking = savedBookings.next();
+                intervalCache.addBooking(booking);
+                summaryCache.invalidate(booking.getItem().getId());
+                result.setBooking(mapper.mapToDto(booking, this.statusChange(booking)));
+            }
+        }
+
+        log.debug("Добавлено бронирований пакетом: {} из {}", bookings.size(), bookingDtos.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public BookingDto getBookingDto(long bookingId, long requesterId) {
+        Booking booking = this.getBooking(bookingId);
+
+        if (requesterId == booking.getBooker().getId() || requesterId == booking.getItem().getOwner().getId()) {
+            return mapper.mapToDto(booking, this.statusChange(booking));
+
+        } else throw new NotFoundException(
+                String.format("Ошибка: попытка получения информации о бронировании с id=%d пользователем с id=%d, " +
+                        "не являющимся автором бронирования или владельцем вещи.", bookingId, requesterId
+                ));
+    }
+
+    @Override
+    @Transactional
+    public Collection<BookingDto> getBookingsUserAndState(
+            Long bookerId, Long ownerId, String state, int startingIndex, Integer collectionSize) {
+        checkUsersExist(bookerId, ownerId);
+        Pageable pageable = OffsetPageRequest.of(startingIndex, collectionSize);
+
+        return findBookings(bookerId, ownerId, parseStatus(state), pageable).stream()
+                .map(booking -> mapper.mapToDto(booking, this.statusChange(booking)))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+    }
+
+    @Override
+    @Transactional
+    public BookingPageDto getBookingsUserAndStateAfter(
+            Long bookerId, Long ownerId, String state, String cursor, Integer collectionSize) {
+        checkUsersExist(bookerId, ownerId);
+        BookingStatus status = parseStatus(state);
+        Collection<Booking> collection;
+        Pageable pageable;
+        String next = null;
+
+        if (cursor == null || cursor.isEmpty()) {
+            pageable = OffsetPageRequest.of(0, collectionSize, Sort.by(Sort.Direction.DESC, "id"));
+            collection = findBookings(bookerId, ownerId, status, pageable);
+
+        } else {
+            pageable = OffsetPageRequest.of(0, collectionSize);
+            collection = findBookingsAfter(bookerId, ownerId, status, BookingCursor.decode(cursor), pageable);
+        }
+
+        List<BookingDto> bookings = collection.stream()
+                .map(booking -> mapper.mapToDto(booking, this.statusChange(booking)))
+                .collect(Collectors.toList());
+
+        if (bookings.size() == pageable.getPageSize()) {
+            BookingDto lastBooking = bookings.get(bookings.size() - 1);
+            next = new BookingCursor(lastBooking.getStart(), lastBooking.getId()).encode();
+        }
+
+        return BookingPageDto.builder()
+                .bookings(bookings)
+                .next(next)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(Long bookerId, Long ownerId, Supplier<OutputStream> outputSupplier) {
+        OutputStream output;
+        int written = 0;
+
+        checkUsersExist(bookerId, ownerId);
+        output = outputSupplier.get();
+        try (Stream<Booking> bookings = bookerId != null
+                ? bookingRepository.streamAllByBooker(bookerId)
+                : bookingRepository.streamAllByOwner(ownerId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                output.write(objectMapper.writeValueAsBytes(mapper.mapToExportDto(booking, this.statusChange(booking))));
+                output.write('\n');
+
+                // Выгруженные бронирования не нужны в контексте, так память не растет на длинной истории
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Выгружено бронирований: {}", written);
+    }
+
+    @Transactional
+    @Override
+    public BookingDto setApproval(long bookingId, boolean approved, long requesterId) {
+        Booking booking = this.getBooking(bookingId);
+        if (booking.getItem().getOwner().getId() != requesterId) {
+            throw new NotFoundException(String.format("Ошибка: попытка изменить статус одобрения бронирования " +
+                    "со стороны пользователя с id=%d, не являющегося владельцем бронируемой вещи.", requesterId));
+
+        } else if (booking.getApproved() != null) {
+            throw new ValidationException(String.format(
+                    "Ошибка: статус одобрения бронирования с id=%d уже был изменен ранее.", bookingId));
+        }
+        booking.setApproved(approved);
+        if (!approved) {
+            intervalCache.removeBooking(booking);
+        }
+        summaryCache.invalidate(booking.getItem().getId());
+
+        log.debug("Одобрение бронирования с id={} изменено на {}", bookingId, approved);
+        return mapper.mapToDto(booking, this.statusChange(booking));
+    }
+
+    @Override
+    public Map<ActualItemBooking, BookingDtoShort> getLastAndNextBookingByItem(Item item, long requesterId) {
+        return getLastAndNextBookingsByItems(List.of(item), requesterId).get(item.getId());
+    }
+
+    @Override
+    public Map<Long, Map<ActualItemBooking, BookingDtoShort>> getLastAndNextBookingsByItems(
+            Collection<Item> items, long requesterId) {
+        Map<Long, Map<ActualItemBooking, BookingDtoShort>> bookingsByItem = new HashMap<>();
+        Map<Long, ItemBookingSummary> summaries = Map.of();
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> item.getOwner().getId() == requesterId)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        if (!ownItemIds.isEmpty()) {
+            summaries = summaryCache.getSummaries(ownItemIds);
+        }
+
+        for (Item item : items) {
+            Map<ActualItemBooking, BookingDtoShort> bookingsMap = new HashMap<>();
+            ItemBookingSummary summary = summaries.get(item.getId());
+            bookingsMap.put(LAST, summary != null ? summary.getLastBooking() : null);
+            bookingsMap.put(NEXT, summary != null ? summary.getNextBooking() : null);
+            bookingsByItem.put(item.getId(), bookingsMap);
+        }
+        return bookingsByItem;
+    }
+
+    @Override
+    public List<FreeWindowDto> getFreeWindows(long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        return intervalCache.getFreeWindows(itemId, from, to);
+    }
+
+    @Override
+    public boolean dontMakeBookings(long bookerId, long itemId) {
+        return bookingRepository.getApprovedBookingsNotInFuture(bookerId, itemId).isEmpty();
+    }
+
+    private Booking makeBooking(BookingDtoRequest bookingDto,
+                                long bookerId,
+                                Supplier<Optional<Item>> itemSupplier,
+                                Supplier<User> bookerSupplier,
+                                Collection<Booking> pendingBookings,
+                                OverlapCheck overlapCheck) {
         LocalDateTime start = bookingDto.getStart();
         LocalDateTime end = bookingDto.getEnd();
-        long itemId = bookingDto.getItemId();
-        long itemOwnerId;
-        Booking booking;
+        Long itemId = bookingDto.getItemId();
         Optional<Item> itemOptional;
+        Booking booking;
         Item item;
 
         if (end.isBefore(start) || end.equals(start)) {
@@ -58,7 +347,7 @@ public class BookingServiceImpl implements BookingService {
             ));
         }
 
-        itemOptional = itemRepository.findById(itemId);
+        itemOptional = itemSupplier.get();
         if (itemOptional.isEmpty()) {
             throw new NotFoundException(String.format("Ошибка получения: вещь с id=%d не найдена.", itemId));
         }
@@ -66,52 +355,71 @@ public class BookingServiceImpl implements BookingService {
 
         booking = mapper.mapToModel(
                 bookingDto,
-                userService.getUserById(bookerId),
+                bookerSupplier.get(),
                 item);
 
-        item = booking.getItem();
-        itemId = item.getId();
-        itemOwnerId = item.getOwner().getId();
-
-        if (itemOwnerId != bookerId && itemRepository.existsItemByIdAndAvailableIsTrue(itemId)) {
-            if (freeBookingTime(booking)) {
-                log.debug("Добавлено новое бронирование: {}", booking);
-                return mapper.mapToDto(bookingRepository.save(booking), this.statusChange(booking));
-
-            } else throw new DuplicateException(
-                    String.format("Ошибка при добавлении бронирования с %s по %s: " +
-                                    "временной промежуток полностью или частично занят.",
-                            booking.getStartTime(), booking.getEndTime()));
-
-        } else if (itemOwnerId == bookerId) {
+        if (item.getOwner().getId() == bookerId) {
             throw new NotFoundException(String.format(
                     "Ошибка добавления бронирования: " +
                             "попытка пользователя с id=%d забронировать собственную вещь.", bookerId
             ));
 
-        } else throw new ValidationException(
-                String.format("Ошибка добавления бронирования: " +
-                        "вещь с id=%d недоступна для бронирования.", itemId));
+        } else if (!item.getAvailable()) {
+            throw new ValidationException(
+                    String.format("Ошибка добавления бронирования: " +
+                            "вещь с id=%d недоступна для бронирования.", itemId));
+
+        } else if (overlapCheck.isOccupied(itemId, start, end) || pendingBookings.stream()
+                .anyMatch(pending -> pending.getItem().getId().equals(itemId)
+                        && pending.getStartTime().isBefore(end)
+                        && pending.getEndTime().isAfter(start))) {
+            throw bookingTimeOccupied(booking);
+        }
+        return booking;
     }
 
-    @Override
-    @Transactional
-    public BookingDto getBookingDto(long bookingId, long requesterId) {
-        Booking booking = this.getBooking(bookingId);
+    // Занятость проверяет БД под блокировкой вещи: кэш интервалов может не знать об изменениях других экземпляров
+    // сервера, а расхождение с БД вытесняет его запись
+    private boolean isOccupied(long itemId, LocalDateTime start, LocalDateTime end) {
+        boolean occupied = bookingRepository.existsOverlappingBooking(itemId, start, end);
 
-        if (requesterId == booking.getBooker().getId() || requesterId == booking.getItem().getOwner().getId()) {
-            return mapper.mapToDto(booking, this.statusChange(booking));
+        intervalCache.evictIfStale(itemId, start, end, occupied);
+        return occupied;
+    }
 
-        } else throw new NotFoundException(
-                String.format("Ошибка: попытка получения информации о бронировании с id=%d пользователем с id=%d, " +
-                        "не являющимся автором бронирования или владельцем вещи.", bookingId, requesterId
-                ));
+    // Занятость означает только нарушение excl_bookings_item_time, остальные ошибки целостности пробрасываются как есть
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                for (SQLException sqlException = (SQLException) cause; sqlException != null;
+                     sqlException = sqlException.getNextException()) {
+                    String message = sqlException.getMessage();
+
+                    if (EXCLUSION_VIOLATION_STATE.equals(sqlException.getSQLState())
+                            || message != null && message.contains(OVERLAP_CONSTRAINT)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
     }
 
-    @Override
-    @Transactional
-    public Collection<BookingDto> getBookingsUserAndState(
-            Long bookerId, Long ownerId, String state, int startingIndex, Integer collectionSize) {
+    private BookingBatchResultDto makeBatchResult(BookingBatchStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    private DuplicateException bookingTimeOccupied(Booking booking) {
+        return new DuplicateException(
+                String.format("Ошибка при добавлении бронирования с %s по %s: " +
+                                "временной промежуток полностью или частично занят.",
+                        booking.getStartTime(), booking.getEndTime()));
+    }
+
+    private void checkUsersExist(Long bookerId, Long ownerId) {
         if (ownerId != null && userService.userNotFound(ownerId)) {
             throw new NotFoundException(
                     String.format("Ошибка при получении бронирований по владельцу вещи: " +
@@ -123,136 +431,127 @@ public class BookingServiceImpl implements BookingService {
                     String.format("Ошибка при получении бронирований по автору: " +
                             "пользователя с id=%d не существует.", bookerId));
         }
-        if (collectionSize == null) {
-            collectionSize = Integer.MAX_VALUE;
-        }
-        Pageable pageable = Pageable.ofSize(startingIndex + collectionSize);
-        Collection<Booking> collection;
-        BookingStatus status;
+    }
 
-        status = parseStatus(state);
+    private List<Booking> findBookings(Long bookerId, Long ownerId, BookingStatus status, Pageable pageable) {
+        List<Booking> collection;
+
+        if (bookerId != null) {
+            collection = findBookerBookings(bookerId, status, pageable);
+        } else {
+            collection = findOwnerBookings(ownerId, status, pageable);
+        }
+        log.debug("Получен список: {}", collection);
+        return collection;
+    }
 
+    private List<Booking> findBookerBookings(long bookerId, BookingStatus status, Pageable pageable) {
         if (status == ALL) {
-            collection = bookingRepository.getAllByBookerIdOrItemOwnerIdOrderByStartTimeDesc(
-                    bookerId, ownerId, pageable).getContent();
-            log.debug("Получен список: {}", collection);
+            return bookingRepository.getAllByBookerIdOrderByStartTimeDesc(bookerId, pageable);
 
         } else if (status == WAITING) {
-            collection = bookingRepository.getWaitingOrRejectedBookings(
-                    bookerId, ownerId, null, pageable).getContent();
+            return bookingRepository.getWaitingOrRejectedBookingsByBooker(bookerId, null, pageable);
 
         } else if (status == REJECTED) {
-            collection = bookingRepository.getWaitingOrRejectedBookings(
-                    bookerId, ownerId, false, pageable).getContent();
+            return bookingRepository.getWaitingOrRejectedBookingsByBooker(bookerId, false, pageable);
 
         } else if (status == PAST) {
-            collection = bookingRepository.getPastBookingsByBookerIdOrOwnerId(
-                    bookerId, ownerId, pageable).getContent();
+            return bookingRepository.getPastBookingsByBooker(bookerId, pageable);
 
         } else if (status == FUTURE) {
-            collection = bookingRepository.getFutureBookings(bookerId, ownerId, pageable).getContent();
+            return bookingRepository.getFutureBookingsByBooker(bookerId, pageable);
 
         } else {
-            collection = bookingRepository.getCurrentBookings(bookerId, ownerId, pageable).getContent();
+            return bookingRepository.getCurrentBookingsByBooker(bookerId, pageable);
         }
-        return collection.stream()
-                .skip(startingIndex)
-                .map(booking -> mapper.mapToDto(booking, this.statusChange(booking)))
-                .collect(Collectors.toCollection(ArrayList::new));
-
     }
 
-    @Transactional
-    @Override
-    public BookingDto setApproval(long bookingId, boolean approved, long requesterId) {
-        Booking booking = this.getBooking(bookingId);
-        if (booking.getItem().getOwner().getId() != requesterId) {
-            throw new NotFoundException(String.format("Ошибка: попытка изменить статус одобрения бронирования " +
-                    "со стороны пользователя с id=%d, не являющегося владельцем бронируемой вещи.", requesterId));
+    private List<Booking> findOwnerBookings(long ownerId, BookingStatus status, Pageable pageable) {
+        if (status == ALL) {
+            return bookingRepository.getAllByItemOwnerIdOrderByStartTimeDesc(ownerId, pageable);
 
-        } else if (booking.getApproved() != null) {
-            throw new ValidationException(String.format(
-                    "Ошибка: статус одобрения бронирования с id=%d уже был изменен ранее.", bookingId));
+        } else if (status == WAITING) {
+            return bookingRepository.getWaitingOrRejectedBookingsByOwner(ownerId, null, pageable);
+
+        } else if (status == REJECTED) {
+            return bookingRepository.getWaitingOrRejectedBookingsByOwner(ownerId, false, pageable);
+
+        } else if (status == PAST) {
+            return bookingRepository.getPastBookingsByOwner(ownerId, pageable);
+
+        } else if (status == FUTURE) {
+            return bookingRepository.getFutureBookingsByOwner(ownerId, pageable);
+
+        } else {
+            return bookingRepository.getCurrentBookingsByOwner(ownerId, pageable);
         }
-        booking.setApproved(approved);
+    }
 
-        log.debug("Одобрение бронирования с id={} изменено на {}", bookingId, approved);
-        return mapper.mapToDto(booking, this.statusChange(booking));
+    private List<Booking> findBookingsAfter(
+            Long bookerId, Long ownerId, BookingStatus status, BookingCursor cursor, Pageable pageable) {
+        if (bookerId != null) {
+            return findBookerBookingsAfter(bookerId, status, cursor, pageable);
+        } else {
+            return findOwnerBookingsAfter(ownerId, status, cursor, pageable);
+        }
     }
 
-    @Override
-    public Map<ActualItemBooking, BookingDtoShort> getLastAndNextBookingByItem(Item item, long requesterId) {
-        Map<ActualItemBooking, BookingDtoShort> bookingsMap;
-
-        if (item.getOwner().getId() == requesterId) {
-            List<Booking> currentAndFutureBookings = new ArrayList<>(
-                    bookingRepository.getActiveBookings(item.getId()));
-            bookingsMap = new HashMap<>();
-            Booking lastBooking = null;
-            Booking nextBooking = null;
-
-            if (currentAndFutureBookings.size() > 1) {
-                if (currentAndFutureBookings.get(0).getStartTime().isBefore(LocalDateTime.now())) {
-                    lastBooking = currentAndFutureBookings.get(0);
-                    nextBooking = currentAndFutureBookings.get(1);
-
-                } else {
-                    nextBooking = currentAndFutureBookings.get(0);
-                    lastBooking = getLastBooking(item);
-                }
+    private List<Booking> findBookerBookingsAfter(
+            long bookerId, BookingStatus status, BookingCursor cursor, Pageable pageable) {
+        LocalDateTime startTime = cursor.getStartTime();
+        long id = cursor.getId();
 
-            } else if (currentAndFutureBookings.size() == 1) {
-                if (currentAndFutureBookings.get(0).getStartTime().isBefore(LocalDateTime.now())) {
-                    lastBooking = currentAndFutureBookings.get(0);
+        if (status == ALL) {
+            return bookingRepository.getAllBookingsByBookerAfter(bookerId, startTime, id, pageable);
 
-                } else {
-                    nextBooking = currentAndFutureBookings.get(0);
-                    lastBooking = getLastBooking(item);
-                }
-            }
-            bookingsMap.put(ActualItemBooking.LAST, mapper.mapToShortDto(lastBooking));
-            bookingsMap.put(ActualItemBooking.NEXT, mapper.mapToShortDto(nextBooking));
+        } else if (status == WAITING) {
+            return bookingRepository.getWaitingOrRejectedBookingsByBookerAfter(
+                    bookerId, null, startTime, id, pageable);
+
+        } else if (status == REJECTED) {
+            return bookingRepository.getWaitingOrRejectedBookingsByBookerAfter(
+                    bookerId, false, startTime, id, pageable);
+
+        } else if (status == PAST) {
+            return bookingRepository.getPastBookingsByBookerAfter(bookerId, startTime, id, pageable);
+
+        } else if (status == FUTURE) {
+            return bookingRepository.getFutureBookingsByBookerAfter(bookerId, startTime, id, pageable);
 
         } else {
-            bookingsMap = new HashMap<>();
-            bookingsMap.put(LAST, null);
-            bookingsMap.put(NEXT, null);
+            return bookingRepository.getCurrentBookingsByBookerAfter(bookerId, startTime, id, pageable);
         }
-        return bookingsMap;
     }
 
-    @Override
-    public boolean dontMakeBookings(long bookerId, long itemId) {
-        return bookingRepository.getApprovedBookingsNotInFuture(bookerId, itemId).isEmpty();
-    }
+    private List<Booking> findOwnerBookingsAfter(
+            long ownerId, BookingStatus status, BookingCursor cursor, Pageable pageable) {
+        LocalDateTime startTime = cursor.getStartTime();
+        long id = cursor.getId();
 
-    private boolean freeBookingTime(Booking booking) {
-        List<Booking> activeBookings = new ArrayList<>(
-                bookingRepository.getActiveBookings(booking.getItem().getId()));
-        final LocalDateTime startTime = booking.getStartTime();
-        final LocalDateTime endTime = booking.getEndTime();
-        LocalDateTime leftBorder = LocalDateTime.now();
-        LocalDateTime rightBorder;
+        if (status == ALL) {
+            return bookingRepository.getAllBookingsByOwnerAfter(ownerId, startTime, id, pageable);
 
-        if (activeBookings.size() > 0) {
-            for (Booking activeBooking : activeBookings) {
-                rightBorder = activeBooking.getStartTime();
+        } else if (status == WAITING) {
+            return bookingRepository.getWaitingOrRejectedBookingsByOwnerAfter(
+                    ownerId, null, startTime, id, pageable);
 
-                if (leftBorder.isBefore(startTime) && rightBorder.isAfter(endTime)) {
-                    return true;
+        } else if (status == REJECTED) {
+            return bookingRepository.getWaitingOrRejectedBookingsByOwnerAfter(
+                    ownerId, false, startTime, id, pageable);
 
-                } else if (leftBorder.isAfter(endTime)) {
-                    return false;
-                }
-                leftBorder = rightBorder;
-            }
-            return leftBorder.isBefore(startTime);
+        } else if (status == PAST) {
+            return bookingRepository.getPastBookingsByOwnerAfter(ownerId, startTime, id, pageable);
+
+        } else if (status == FUTURE) {
+            return bookingRepository.getFutureBookingsByOwnerAfter(ownerId, startTime, id, pageable);
 
-        } else return true;
+        } else {
+            return bookingRepository.getCurrentBookingsByOwnerAfter(ownerId, startTime, id, pageable);
+        }
     }
 
     private Booking getBooking(long bookingId) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOptional = bookingRepository.findDetailedById(bookingId);
 
         if (bookingOptional.isPresent()) {
             return bookingOptional.get();
@@ -260,17 +559,6 @@ public class BookingServiceImpl implements BookingService {
                 "Ошибка при получении бронирования: объект с id=%d не найден.", bookingId));
     }
 
-    private Booking getLastBooking(Item item) {
-        List<Booking> pastBookings = new ArrayList<>(bookingRepository.getPastBookingsByItemId(item.getId()));
-        Booking lastBooking = null;
-
-        if (!pastBookings.isEmpty()) {
-            lastBooking = pastBookings.get(0);
-
-        }
-        return lastBooking;
-    }
-
     private BookingStatus statusChange(Booking booking) {
         Boolean approved = booking.getApproved();
 
@@ -298,4 +586,9 @@ public class BookingServiceImpl implements BookingService {
         }
         return status;
     }
+
+    private interface OverlapCheck {
+
+        boolean isOccupied(long itemId, LocalDateTime start, LocalDateTime end);
+    }
 }
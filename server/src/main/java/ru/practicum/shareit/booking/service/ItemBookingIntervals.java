@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+class ItemBookingIntervals {
+
+    // Неотклоненные бронирования одной вещи не пересекаются, поэтому порядок по началу совпадает с порядком по концу
+    private final NavigableMap<LocalDateTime, Interval> intervals = new TreeMap<>();
+    private final Map<Long, LocalDateTime> startTimes = new HashMap<>();
+
+    ItemBookingIntervals(Collection<BookingIntervalView> bookings) {
+        bookings.forEach(booking -> add(booking.getId(), booking.getStartTime(), booking.getEndTime()));
+    }
+
+    synchronized void add(long bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+        intervals.put(startTime, new Interval(bookingId, endTime));
+        startTimes.put(bookingId, startTime);
+    }
+
+    synchronized void remove(long bookingId) {
+        LocalDateTime startTime = startTimes.remove(bookingId);
+
+        if (startTime != null) {
+            intervals.remove(startTime);
+        }
+    }
+
+    synchronized boolean isOccupied(LocalDateTime startTime, LocalDateTime endTime) {
+        Map.Entry<LocalDateTime, Interval> previous;
+
+        removeFinished();
+        previous = intervals.lowerEntry(endTime);
+        return previous != null && previous.getValue().endTime.isAfter(startTime);
+    }
+
+    synchronized List<FreeWindowDto> getFreeWindows(LocalDateTime from, LocalDateTime to) {
+        List<FreeWindowDto> windows = new ArrayList<>();
+        LocalDateTime windowStart = from;
+        LocalDateTime first;
+
+        removeFinished();
+        first = intervals.floorKey(from);
+        for (Map.Entry<LocalDateTime, Interval> entry
+                : intervals.subMap(first == null ? from : first, true, to, false).entrySet()) {
+            if (entry.getKey().isAfter(windowStart)) {
+                windows.add(new FreeWindowDto(windowStart, entry.getKey()));
+            }
+            if (entry.getValue().endTime.isAfter(windowStart)) {
+                windowStart = entry.getValue().endTime;
+            }
+        }
+
+        if (windowStart.isBefore(to)) {
+            windows.add(new FreeWindowDto(windowStart, to));
+        }
+        return windows;
+    }
+
+    private void removeFinished() {
+        LocalDateTime now = LocalDateTime.now();
+
+        while (!intervals.isEmpty() && !intervals.firstEntry().getValue().endTime.isAfter(now)) {
+            startTimes.remove(intervals.pollFirstEntry().getValue().bookingId);
+        }
+    }
+
+    private static class Interval {
+        private final long bookingId;
+        private final LocalDateTime endTime;
+
+        private Interval(long bookingId, LocalDateTime endTime) {
+            this.bookingId = bookingId;
+            this.endTime = endTime;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingBoundaryView;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.VersionedCache;
+import ru.practicum.shareit.config.CacheConfig;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class ItemBookingSummaryCache {
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper mapper;
+    private final VersionedCache summaries;
+
+    public ItemBookingSummaryCache(BookingRepository bookingRepository, BookingMapper mapper,
+                                   CacheManager cacheManager) {
+        this.bookingRepository = bookingRepository;
+        this.mapper = mapper;
+        this.summaries = new VersionedCache(cacheManager.getCache(CacheConfig.ITEM_BOOKINGS));
+    }
+
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        long loadVersion;
+
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId, ItemBookingSummary.class);
+            if (summary != null) {
+                result.put(itemId, summary);
+            } else {
+                missingIds.add(itemId);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        loadVersion = summaries.getVersion();
+        Map<Long, ItemBookingSummary> loaded = load(missingIds);
+        result.putAll(loaded);
+
+        if (summaries.putAll(loaded, loadVersion)) {
+            log.debug("Загружены последнее и следующее бронирования вещей: {}", loaded.keySet());
+        }
+        return result;
+    }
+
+    public void invalidate(long itemId) {
+        summaries.evict(itemId);
+    }
+
+    private Map<Long, ItemBookingSummary> load(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> loaded = new HashMap<>();
+        Map<Long, BookingDtoShort> lastBookings = new HashMap<>();
+        Map<Long, BookingDtoShort> nextBookings = new HashMap<>();
+        Map<Long, LocalDateTime> boundaries = new HashMap<>();
+
+        bookingRepository.getLastBookingsByItemIds(itemIds)
+                .forEach(booking -> lastBookings.put(booking.getItemId(), mapper.mapToShortDto(booking)));
+        bookingRepository.getNextBookingsByItemIds(itemIds)
+                .forEach(booking -> nextBookings.put(booking.getItemId(), mapper.mapToShortDto(booking)));
+        bookingRepository.getNextBoundariesByItemIds(itemIds)
+                .forEach(boundary -> boundaries.put(boundary.getItemId(), boundary.getBoundary()));
+
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, ItemBookingSummary.builder()
+                    .lastBooking(lastBookings.get(itemId))
+                    .nextBooking(nextBookings.get(itemId))
+                    .expiresAt(boundaries.get(itemId))
+                    .build());
+        }
+        return loaded;
+    }
+}
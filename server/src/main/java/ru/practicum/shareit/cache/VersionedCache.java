@@ -0,0 +1,72 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+// Кэш, в который не попадают данные, загруженные во время их изменения.
+// Версия читается до загрузки из БД и увеличивается при вытеснении после завершения транзакции изменения:
+// загрузка, начавшаяся раньше, могла не увидеть изменение, и ее результат не сохраняется.
+// Вытеснение выполняется и при откате, чтобы в кэше не осталось прочитанное внутри отмененной транзакции.
+// putIfAbsent и evictIfPresent выполняются сразу, а не откладываются TransactionAwareCacheManagerProxy до коммита
+public class VersionedCache {
+
+    private final Cache cache;
+    private long version;
+
+    public VersionedCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized boolean put(Object key, Object value, long loadVersion) {
+        if (loadVersion != version) {
+            return false;
+        }
+        cache.putIfAbsent(key, value);
+        return true;
+    }
+
+    public synchronized boolean putAll(Map<?, ?> values, long loadVersion) {
+        if (loadVersion != version) {
+            return false;
+        }
+        values.forEach(cache::putIfAbsent);
+        return true;
+    }
+
+    public void evict(Object key) {
+        afterCompletion(() -> cache.evictIfPresent(key));
+    }
+
+    public void evictAll() {
+        afterCompletion(cache::invalidate);
+    }
+
+    private void afterCompletion(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(eviction);
+                }
+            });
+        } else {
+            evictNow(eviction);
+        }
+    }
+
+    private synchronized void evictNow(Runnable eviction) {
+        version++;
+        eviction.run();
+    }
+}
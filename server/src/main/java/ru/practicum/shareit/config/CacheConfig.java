@@ -0,0 +1,95 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEM_BOOKINGS = "item_bookings";
+    public static final String ITEM_CARDS = "item_cards";
+    public static final String ITEM_SEARCH = "item_search";
+
+    @Bean
+    public Ticker cacheTicker() {
+        return Ticker.systemTicker();
+    }
+
+    @Bean
+    public CacheManager cacheManager(Ticker cacheTicker,
+                                     @Value("${shareit.cache.users.spec}") String usersSpec,
+                                     @Value("${shareit.cache.item-bookings.spec}") String itemBookingsSpec,
+                                     @Value("${shareit.cache.item-bookings.max-ttl}") Duration itemBookingsMaxTtl,
+                                     @Value("${shareit.cache.item-cards.spec}") String itemCardsSpec,
+                                     @Value("${shareit.cache.item-search.spec}") String itemSearchSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Кэши регистрируются заранее, чтобы actuator привязал к ним метрики при старте
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(USERS, Caffeine.from(usersSpec)
+                .ticker(cacheTicker)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_BOOKINGS, Caffeine.from(itemBookingsSpec)
+                .expireAfter(untilBookingBoundary(itemBookingsMaxTtl))
+                .ticker(cacheTicker)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_CARDS, Caffeine.from(itemCardsSpec)
+                .ticker(cacheTicker)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_SEARCH, Caffeine.from(itemSearchSpec)
+                .weigher(CacheConfig::weighSearchResult)
+                .ticker(cacheTicker)
+                .recordStats()
+                .build());
+
+        // Запись и вытеснение откладываются до коммита, чтобы кэш не опережал БД
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Вес результата поиска примерно равен занимаемой им памяти в байтах
+    private static int weighSearchResult(Object text, Object itemIds) {
+        return Character.BYTES * ((String) text).length() + Long.BYTES * ((long[]) itemIds).length;
+    }
+
+    private static Expiry<Object, Object> untilBookingBoundary(Duration maxTtl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                LocalDateTime expiresAt = ((ItemBookingSummary) value).getExpiresAt();
+                long ttl = maxTtl.toNanos();
+
+                if (expiresAt != null) {
+                    ttl = Math.min(ttl, Duration.between(LocalDateTime.now(), expiresAt).toNanos());
+                }
+                return Math.max(ttl, 0);
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
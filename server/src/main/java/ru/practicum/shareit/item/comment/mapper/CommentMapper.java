@@ -4,6 +4,7 @@ import lombok.Generated;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -16,4 +17,6 @@ public interface CommentMapper {
 
     @Mapping(source = "comment.author.name", target = "authorName")
     CommentDto mapToDto(Comment comment);
+
+    CommentDto mapToDto(CommentView comment);
 }
\ No newline at end of file
@@ -1,7 +1,26 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    @Query(value = "SELECT ranked.comment_id AS id, ranked.commented_item_id AS itemId, " +
+            "ranked.comment_text AS text, ranked.user_name AS authorName, ranked.created AS created " +
+            "FROM (SELECT c.comment_id, c.commented_item_id, c.comment_text, u.user_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.commented_item_id " +
+            "ORDER BY c.created DESC, c.comment_id DESC) AS rn " +
+            "FROM comments c " +
+            "JOIN users u ON u.user_id = c.author_id " +
+            "WHERE c.commented_item_id IN (?1)) AS ranked " +
+            "WHERE ranked.rn <= ?2 " +
+            "ORDER BY ranked.created, ranked.comment_id",
+            nativeQuery = true
+    )
+    List<CommentView> getLatestCommentsByItemIds(Collection<Long> itemIds, int limit);
 }
@@ -2,14 +2,22 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -27,6 +35,15 @@ public class ItemController {
         return new ResponseEntity<>(itemService.addItemDto(itemDto, ownerId), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ItemImportResultDto> importItems(@RequestHeader(name = USER_ID) Long ownerId,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           InputStream body) {
+
+        return ResponseEntity.ok(itemService.importItems(
+                body, MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType), ownerId));
+    }
+
     @PostMapping(path = "/{itemId}/comment")
     public ResponseEntity<CommentDto> addComment(@RequestHeader(name = USER_ID) Long authorId,
                                                  @PathVariable Long itemId,
@@ -41,6 +58,16 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemDto(id, requesterId));
     }
 
+    @GetMapping(path = "/{id}/availability")
+    public ResponseEntity<List<FreeWindowDto>> getItemAvailability(
+            @RequestHeader(name = USER_ID) Long requesterId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        return ResponseEntity.ok(itemService.getItemAvailability(id, from, to));
+    }
+
     @GetMapping
     public ResponseEntity<Collection<ItemDto>> getItemsOwner(
             @RequestHeader(name = USER_ID) Long ownerId,
@@ -4,12 +4,15 @@ import lombok.Generated;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", uses = CommentMapper.class)
 @Generated
 public interface ItemMapper {
@@ -23,7 +26,9 @@ public interface ItemMapper {
 
     @Mapping(source = "item.id", target = "id")
     @Mapping(source = "item.request.id", target = "requestId")
-    ItemDto mapToItemDto(Item item, BookingDtoShort lastBooking, BookingDtoShort nextBooking);
+    @Mapping(source = "comments", target = "comments")
+    ItemDto mapToItemDto(
+            Item item, BookingDtoShort lastBooking, BookingDtoShort nextBooking, List<CommentDto> comments);
 
     @Mapping(source = "item.id", target = "id")
     @Mapping(source = "item.request.id", target = "requestId")
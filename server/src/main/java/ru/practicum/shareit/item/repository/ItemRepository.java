@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.repository;
 import lombok.Generated;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
@@ -10,12 +11,24 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 @Generated
 public interface ItemRepository extends PagingAndSortingRepository<Item, Long>, CustomItemRepository {
 
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1")
     Page<Item> findAllByOwnerId(Long id, Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findLockedByIdInOrderById(Collection<Long> itemIds);
+
     @Query(value = "SELECT i FROM Item i " +
             "WHERE (LOWER(i.name) LIKE CONCAT('%', LOWER(?1), '%')" +
             "OR LOWER(i.description) LIKE CONCAT('%', LOWER(?1), '%'))" +
@@ -23,8 +36,18 @@ public interface ItemRepository extends PagingAndSortingRepository<Item, Long>,
     )
     Page<Item> searchAvailableItemsByNameAndDescription(String query, Pageable pageable);
 
+    @Query(value = "SELECT i.id FROM Item i " +
+            "WHERE (LOWER(i.name) LIKE CONCAT('%', LOWER(?1), '%')" +
+            "OR LOWER(i.description) LIKE CONCAT('%', LOWER(?1), '%'))" +
+            " AND i.available = TRUE"
+    )
+    List<Long> searchAvailableItemIdsByNameAndDescription(String query, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.request.id IN ?1")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
     @Transactional
-    void deleteAllByOwner(User owner);
+    List<Item> deleteAllByOwner(User owner);
 
     boolean existsItemByIdAndAvailableIsTrue(long itemId);
 }
@@ -0,0 +1,290 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// Индекс хранится в памяти процесса и обновляется только изменениями, прошедшими через этот экземпляр.
+// При нескольких экземплярах сервера вещи, измененные на других, ищутся по старому тексту до перезапуска
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+@RequiredArgsConstructor
+@Slf4j
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] EMPTY = new long[0];
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final Map<Long, Set<String>> itemTokens = new HashMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void buildIndex() {
+        Pageable pageable = OffsetPageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(item -> updateItem(item.getId(), tokenize(item), item.getAvailable()));
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+
+        log.debug("Построен поисковый индекс: вещей {}, токенов {}, n-грамм {}",
+                itemTokens.size(), postings.size(), tokensByGram.size());
+    }
+
+    // Прочитанная вещь может быть старее индекса, поэтому недоступные вещи только пропускаются, а страница
+    // добирается следующими id. Сам индекс меняется только после коммита изменения вещи
+    @Override
+    public List<Item> searchAvailableItems(String text, int startingIndex, Integer collectionSize) {
+        Pageable pageable = OffsetPageRequest.of(startingIndex, collectionSize);
+        long[] ids = findItemIds(text);
+        List<Item> result = new ArrayList<>();
+        int position = (int) Math.min(pageable.getOffset(), ids.length);
+
+        while (result.size() < pageable.getPageSize() && position < ids.length) {
+            int end = Math.min(position + pageable.getPageSize() - result.size(), ids.length);
+            List<Long> chunkIds = Arrays.stream(ids, position, end)
+                    .boxed()
+                    .collect(Collectors.toList());
+            Map<Long, Item> items = StreamSupport.stream(itemRepository.findAllById(chunkIds).spliterator(), false)
+                    .filter(Item::getAvailable)
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+            chunkIds.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .forEach(result::add);
+            position = end;
+        }
+        return result;
+    }
+
+    @Override
+    public List<Long> searchAvailableItemIds(String text, int limit) {
+        return LongStream.of(findItemIds(text))
+                .limit(limit)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void indexItem(Item item) {
+        long itemId = item.getId();
+        Set<String> tokens = tokenize(item);
+        boolean available = item.getAvailable();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updateItem(itemId, tokens, available);
+                }
+            });
+        } else {
+            updateItem(itemId, tokens, available);
+        }
+    }
+
+    @Override
+    public void removeItem(long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updateItem(itemId, Set.of(), false);
+                }
+            });
+        } else {
+            updateItem(itemId, Set.of(), false);
+        }
+    }
+
+    private long[] findItemIds(String text) {
+        Set<String> queryTokens = tokenize(text);
+        long[] result = null;
+
+        if (queryTokens.isEmpty()) {
+            return EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                long[] matches = findTokens(queryToken).stream()
+                        .flatMapToLong(token -> LongStream.of(postings.get(token)))
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                result = result == null ? matches : intersect(result, matches);
+
+                if (result.length == 0) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Короткие части слов проиндексированы целиком, для длинных кандидаты берутся по самой редкой триграмме
+    private Collection<String> findTokens(String queryToken) {
+        Set<String> candidates = null;
+
+        if (queryToken.length() <= GRAM_LENGTH) {
+            return tokensByGram.getOrDefault(queryToken, Set.of());
+        }
+        for (int i = 0; i + GRAM_LENGTH <= queryToken.length(); i++) {
+            Set<String> tokens = tokensByGram.get(queryToken.substring(i, i + GRAM_LENGTH));
+
+            if (tokens == null) {
+                return List.of();
+            }
+            if (candidates == null || tokens.size() < candidates.size()) {
+                candidates = tokens;
+            }
+        }
+        return candidates.stream()
+                .filter(token -> token.contains(queryToken))
+                .collect(Collectors.toList());
+    }
+
+    private void updateItem(long itemId, Set<String> tokens, boolean available) {
+        Set<String> newTokens = available ? tokens : Set.of();
+
+        lock.writeLock().lock();
+        try {
+            Set<String> oldTokens = itemTokens.getOrDefault(itemId, Set.of());
+
+            for (String token : oldTokens) {
+                if (!newTokens.contains(token)) {
+                    long[] ids = remove(postings.get(token), itemId);
+                    if (ids.length == 0) {
+                        postings.remove(token);
+                        grams(token).forEach(gram -> removeGram(gram, token));
+                    } else {
+                        postings.put(token, ids);
+                    }
+                }
+            }
+            for (String token : newTokens) {
+                if (!oldTokens.contains(token)) {
+                    if (!postings.containsKey(token)) {
+                        grams(token).forEach(gram -> tokensByGram.computeIfAbsent(gram, key -> new HashSet<>())
+                                .add(token));
+                    }
+                    postings.put(token, insert(postings.getOrDefault(token, EMPTY), itemId));
+                }
+            }
+
+            if (newTokens.isEmpty()) {
+                itemTokens.remove(itemId);
+            } else {
+                itemTokens.put(itemId, newTokens);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeGram(String gram, String token) {
+        Set<String> tokens = tokensByGram.get(gram);
+
+        tokens.remove(token);
+        if (tokens.isEmpty()) {
+            tokensByGram.remove(gram);
+        }
+    }
+
+    private Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= token.length(); i++) {
+                grams.add(token.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private Set<String> tokenize(Item item) {
+        return tokenize(item.getName() + " " + item.getDescription());
+    }
+
+    private Set<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private long[] insert(long[] ids, long itemId) {
+        int position = Arrays.binarySearch(ids, itemId);
+
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = itemId;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+        return result;
+    }
+
+    private long[] remove(long[] ids, long itemId) {
+        int position = Arrays.binarySearch(ids, itemId);
+
+        if (position < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.VersionedCache;
+import ru.practicum.shareit.config.CacheConfig;
+
+import java.util.Locale;
+
+@Component
+@Slf4j
+public class ItemSearchCache {
+
+    private final VersionedCache results;
+
+    public ItemSearchCache(CacheManager cacheManager) {
+        this.results = new VersionedCache(cacheManager.getCache(CacheConfig.ITEM_SEARCH));
+    }
+
+    public long[] get(String text) {
+        return results.get(normalize(text), long[].class);
+    }
+
+    public long getVersion() {
+        return results.getVersion();
+    }
+
+    public void put(String text, long[] itemIds, long loadVersion) {
+        if (results.put(normalize(text), itemIds, loadVersion)) {
+            log.debug("Сохранен результат поиска вещей по тексту \"{}\": {} шт.", text, itemIds.length);
+        }
+    }
+
+    public void evict(String text) {
+        results.evict(normalize(text));
+    }
+
+    public void invalidateAll() {
+        results.evictAll();
+    }
+
+    // Все поисковые движки сравнивают текст без учета регистра
+    private String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
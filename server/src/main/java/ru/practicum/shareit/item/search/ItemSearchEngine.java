@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> searchAvailableItems(String text, int startingIndex, Integer collectionSize);
+
+    List<Long> searchAvailableItemIds(String text, int limit);
+
+    default void indexItem(Item item) {
+    }
+
+    default void removeItem(long itemId) {
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailableItems(String text, int startingIndex, Integer collectionSize) {
+        return itemRepository.searchAvailableItemsByNameAndDescription(
+                text, OffsetPageRequest.of(startingIndex, collectionSize, Sort.by("id"))).getContent();
+    }
+
+    @Override
+    public List<Long> searchAvailableItemIds(String text, int limit) {
+        return itemRepository.searchAvailableItemIdsByNameAndDescription(
+                text, PageRequest.of(0, limit, Sort.by("id")));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+@RequiredArgsConstructor
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+
+    // Использует GIN-индексы pg_trgm из schema-postgresql.sql
+    private static final String SEARCH_QUERY = "SELECT i.* FROM items i " +
+            "WHERE i.available = TRUE " +
+            "AND (i.item_name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY GREATEST(word_similarity(:text, i.item_name), word_similarity(:text, i.description)) DESC, " +
+            "i.item_id " +
+            "LIMIT :limit OFFSET :offset";
+    private static final String SEARCH_IDS_QUERY = "SELECT i.item_id FROM items i " +
+            "WHERE i.available = TRUE " +
+            "AND (i.item_name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY GREATEST(word_similarity(:text, i.item_name), word_similarity(:text, i.description)) DESC, " +
+            "i.item_id " +
+            "LIMIT :limit";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableItems(String text, int startingIndex, Integer collectionSize) {
+        Pageable pageable = OffsetPageRequest.of(startingIndex, collectionSize);
+
+        return entityManager.createNativeQuery(SEARCH_QUERY, Item.class)
+                .setParameter("text", text)
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset())
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> searchAvailableItemIds(String text, int limit) {
+        List<Number> ids = entityManager.createNativeQuery(SEARCH_IDS_QUERY)
+                .setParameter("text", text)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return ids.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+}
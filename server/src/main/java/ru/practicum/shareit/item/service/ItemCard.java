@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+// Представление вещи для всех, кроме владельца: без последнего и следующего бронирования
+@Getter
+@AllArgsConstructor
+public class ItemCard {
+    private final long ownerId;
+    private final ItemDto item;
+}
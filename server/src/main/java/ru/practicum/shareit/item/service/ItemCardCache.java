@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.VersionedCache;
+import ru.practicum.shareit.config.CacheConfig;
+
+@Component
+@Slf4j
+public class ItemCardCache {
+
+    private final VersionedCache cards;
+
+    public ItemCardCache(CacheManager cacheManager) {
+        this.cards = new VersionedCache(cacheManager.getCache(CacheConfig.ITEM_CARDS));
+    }
+
+    public ItemCard get(long itemId) {
+        return cards.get(itemId, ItemCard.class);
+    }
+
+    public long getVersion() {
+        return cards.getVersion();
+    }
+
+    public void put(long itemId, ItemCard card, long loadVersion) {
+        if (cards.put(itemId, card, loadVersion)) {
+            log.debug("Сохранена карточка вещи с id={}", itemId);
+        }
+    }
+
+    public void invalidate(long itemId) {
+        cards.evict(itemId);
+    }
+
+    public void invalidateAll() {
+        cards.evictAll();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+class ItemImportReader {
+
+    private final ObjectMapper objectMapper;
+    private final RowHandler handler;
+
+    ItemImportReader(ObjectMapper objectMapper, RowHandler handler) {
+        this.objectMapper = objectMapper;
+        this.handler = handler;
+    }
+
+    void readLines(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String text;
+        long line = 0;
+
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+
+            try {
+                handler.row(line, objectMapper.readValue(text, ItemDto.class));
+            } catch (JsonProcessingException e) {
+                handler.error(line, "Некорректная строка: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // После синтаксической ошибки состояние парсера не определено, поэтому остаток массива не читается
+    void readArray(InputStream input) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                handler.error(parser.getTokenLocation().getLineNr(), "Ожидается JSON-массив вещей.");
+                return;
+            }
+
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    long line = parser.getTokenLocation().getLineNr();
+                    JsonNode node = objectMapper.readTree(parser);
+
+                    try {
+                        handler.row(line, objectMapper.treeToValue(node, ItemDto.class));
+                    } catch (JsonProcessingException e) {
+                        handler.error(line, "Некорректный элемент: " + e.getOriginalMessage());
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                handler.error(parser.getCurrentLocation().getLineNr(), "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    interface RowHandler {
+        void row(long line, ItemDto itemDto);
+
+        void error(long line, String error);
+    }
+}
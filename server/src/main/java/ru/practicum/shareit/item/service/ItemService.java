@@ -1,19 +1,28 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
     ItemDto addItemDto(ItemDto itemDto, long ownerId);
 
+    ItemImportResultDto importItems(InputStream input, boolean lineDelimited, long ownerId);
+
     ItemDto getItemDto(long id, long requesterId);
 
     Item getItem(long itemId);
 
+    List<FreeWindowDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     Collection<ItemDto> getOwnerItems(long ownerId, int startingIndex, Integer collectionSize);
 
     Collection<ItemDto> searchAvailableItems(long ownerId, String text,  int startingIndex, Integer collectionSize);
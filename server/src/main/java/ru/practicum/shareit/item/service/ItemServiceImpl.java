@@ -1,11 +1,18 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -14,17 +21,30 @@ import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 import static ru.practicum.shareit.item.service.ActualItemBooking.LAST;
 import static ru.practicum.shareit.item.service.ActualItemBooking.NEXT;
@@ -35,6 +55,9 @@ import static ru.practicum.shareit.item.service.ActualItemBooking.NEXT;
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
+    private static final int NAME_MAX_LENGTH = 255;
+    private static final int DESCRIPTION_MAX_LENGTH = 1024;
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingService bookingService;
@@ -42,6 +65,21 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestService itemRequestService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ItemCardCache itemCardCache;
+    private final ItemSearchCache itemSearchCache;
+
+    @Value("${shareit.item.comments-per-item}")
+    private int commentsPerItem;
+
+    @Value("${shareit.item.import-chunk-size}")
+    private int importChunkSize;
+
+    @Value("${shareit.cache.item-search.max-ids}")
+    private int searchCacheMaxIds;
 
     @Override
     public ItemDto addItemDto(ItemDto itemDto, long ownerId) {
@@ -58,21 +96,60 @@ public class ItemServiceImpl implements ItemService {
         item = itemMapper.mapToItemModel(itemDto, userService.getUserById(ownerId), request);
         item.setId(null);
         item = itemRepository.save(item);
+        itemSearchEngine.indexItem(item);
+        if (item.getAvailable()) {
+            itemSearchCache.invalidateAll();
+        }
 
         log.debug("Добавлена новая вещь: {}", item);
-        return itemMapper.mapToItemDto(item, null, null);
+        return itemMapper.mapToItemDto(item, null, null, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResultDto importItems(InputStream input, boolean lineDelimited, long ownerId) {
+        ItemImport itemImport = new ItemImport(userService.getUserById(ownerId));
+        ItemImportReader reader = new ItemImportReader(objectMapper, itemImport);
+
+        try {
+            if (lineDelimited) {
+                reader.readLines(input);
+            } else {
+                reader.readArray(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        itemImport.flush();
+
+        log.debug("Импортировано вещей владельца с id={}: {}, ошибок: {}",
+                ownerId, itemImport.imported, itemImport.errors.size());
+        return ItemImportResultDto.builder()
+                .imported(itemImport.imported)
+                .errors(itemImport.errors)
+                .build();
     }
 
     @Override
     public ItemDto getItemDto(long id, long requesterId) {
+        ItemCard card = itemCardCache.get(id);
+        long loadVersion;
+        long ownerId;
+        ItemDto itemDto;
+
+        if (card != null && card.getOwnerId() != requesterId) {
+            return card.getItem();
+        }
+
+        loadVersion = itemCardCache.getVersion();
         Item item = this.getItem(id);
-        Map<ActualItemBooking, BookingDtoShort> lastAndNextBooking =
-                bookingService.getLastAndNextBookingByItem(item, requesterId);
+        ownerId = item.getOwner().getId();
+        itemDto = mapToItemDtos(List.of(item), requesterId).get(0);
 
-        return itemMapper.mapToItemDto(
-                item,
-                lastAndNextBooking.get(LAST),
-                lastAndNextBooking.get(NEXT));
+        if (ownerId != requesterId) {
+            itemCardCache.put(id, new ItemCard(ownerId, itemDto), loadVersion);
+        }
+        return itemDto;
     }
 
     @Override
@@ -87,41 +164,31 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Collection<ItemDto> getOwnerItems(long ownerId,  int startingIndex, Integer collectionSize) {
-        if (collectionSize == null) {
-            collectionSize = Integer.MAX_VALUE;
+    public List<FreeWindowDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(String.format("Ошибка получения свободного времени вещи с id=%d: " +
+                    "начало периода не раньше его окончания.", itemId));
         }
 
-        return itemRepository.findAllByOwnerId(
-                ownerId, Pageable.ofSize(startingIndex + collectionSize)).stream()
-                .sorted(Comparator.comparing(Item::getId))
-                .skip(startingIndex)
-                .map(item -> {
-                    Map<ActualItemBooking, BookingDtoShort> itemDtoBookingsMap =
-                            bookingService.getLastAndNextBookingByItem(item, ownerId);
-                    return itemMapper.mapToItemDto(item, itemDtoBookingsMap.get(LAST), itemDtoBookingsMap.get(NEXT));
-                })
-                .collect(Collectors.toList());
+        if (!this.getItem(itemId).getAvailable()) {
+            return List.of();
+        }
+        return bookingService.getFreeWindows(itemId, from, to);
+    }
+
+    @Override
+    public Collection<ItemDto> getOwnerItems(long ownerId,  int startingIndex, Integer collectionSize) {
+        List<Item> items = itemRepository.findAllByOwnerId(
+                ownerId, OffsetPageRequest.of(startingIndex, collectionSize, Sort.by("id"))).getContent();
+
+        return mapToItemDtos(items, ownerId);
     }
 
     @Override
     public Collection<ItemDto> searchAvailableItems(
             long userId, String text,  int startingIndex, Integer collectionSize) {
-        if (collectionSize == null) {
-            collectionSize = Integer.MAX_VALUE;
-        }
-
         if (!text.isEmpty()) {
-            return itemRepository.searchAvailableItemsByNameAndDescription(
-                    text, Pageable.ofSize(startingIndex + collectionSize)).stream()
-                    .sorted(Comparator.comparing(Item::getId))
-                    .skip(startingIndex)
-                    .map(item -> {
-                        Map<ActualItemBooking, BookingDtoShort> itemDtoBookingsMap = bookingService
-                                .getLastAndNextBookingByItem(item, userId);
-                        return itemMapper.mapToItemDto(item, itemDtoBookingsMap.get(LAST), itemDtoBookingsMap.get(NEXT));
-                    })
-                    .collect(Collectors.toList());
+            return mapToItemDtos(findAvailableItems(text, startingIndex, collectionSize), userId);
         } else return List.of();
     }
 
@@ -160,10 +227,13 @@ public class ItemServiceImpl implements ItemService {
         item = itemMapper.mapToItemModel(itemDto, userService.getUserById(ownerId), null);
         item.setId(itemId);
         item = itemRepository.updateItem(item, targetFields);
+        itemSearchEngine.indexItem(item);
+        itemCardCache.invalidate(itemId);
+        itemSearchCache.invalidateAll();
         itemDtoBookingsMap = bookingService.getLastAndNextBookingByItem(item, ownerId);
 
         log.debug("Обновлена вещь: {}", item);
-        return itemMapper.mapToItemDto(item, itemDtoBookingsMap.get(LAST), itemDtoBookingsMap.get(NEXT));
+        return itemMapper.mapToItemDto(item, itemDtoBookingsMap.get(LAST), itemDtoBookingsMap.get(NEXT), null);
     }
 
     @Override
@@ -177,8 +247,157 @@ public class ItemServiceImpl implements ItemService {
                 commentDto, userService.getUserById(authorId), this.getItem(itemId));
         comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
         comment = commentRepository.save(comment);
+        itemCardCache.invalidate(itemId);
 
         log.debug("Добавлен комментарий: {}", comment);
         return commentMapper.mapToDto(comment);
     }
+
+    private List<Item> findAvailableItems(String text, int startingIndex, Integer collectionSize) {
+        Pageable pageable = OffsetPageRequest.of(startingIndex, collectionSize);
+        long[] itemIds = itemSearchCache.get(text);
+        long loadVersion;
+        List<Long> pageIds;
+        Map<Long, Item> items;
+
+        if (itemIds == null) {
+            loadVersion = itemSearchCache.getVersion();
+            itemIds = itemSearchEngine.searchAvailableItemIds(text, searchCacheMaxIds + 1).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            itemSearchCache.put(text, itemIds, loadVersion);
+        }
+
+        // В кэше не больше max-ids + 1 вещей, более далекие страницы ищутся без кэша
+        if (itemIds.length > searchCacheMaxIds
+                && pageable.getOffset() + pageable.getPageSize() > searchCacheMaxIds) {
+            return itemSearchEngine.searchAvailableItems(text, startingIndex, collectionSize);
+        }
+
+        pageIds = LongStream.of(itemIds)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .boxed()
+                .collect(Collectors.toList());
+        items = StreamSupport.stream(itemRepository.findAllById(pageIds).spliterator(), false)
+                .filter(Item::getAvailable)
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        // Поисковый индекс может вернуть уже удаленные вещи, такой результат не используется
+        if (items.size() < pageIds.size()) {
+            itemSearchCache.evict(text);
+            return itemSearchEngine.searchAvailableItems(text, startingIndex, collectionSize);
+        }
+        return pageIds.stream()
+                .map(items::get)
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemDto> mapToItemDtos(List<Item> items, long requesterId) {
+        Map<Long, Map<ActualItemBooking, BookingDtoShort>> bookingsByItem =
+                bookingService.getLastAndNextBookingsByItems(items, requesterId);
+        Map<Long, List<CommentDto>> commentsByItem = getCommentsByItems(items);
+
+        return items.stream()
+                .map(item -> {
+                    Map<ActualItemBooking, BookingDtoShort> itemDtoBookingsMap = bookingsByItem.get(item.getId());
+                    return itemMapper.mapToItemDto(item, itemDtoBookingsMap.get(LAST), itemDtoBookingsMap.get(NEXT),
+                            commentsByItem.get(item.getId()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<CommentDto>> getCommentsByItems(List<Item> items) {
+        Map<Long, List<CommentDto>> commentsByItem = new HashMap<>();
+        items.forEach(item -> commentsByItem.put(item.getId(), new ArrayList<>()));
+
+        if (!items.isEmpty()) {
+            commentRepository.getLatestCommentsByItemIds(commentsByItem.keySet(), commentsPerItem)
+                    .forEach(comment -> commentsByItem.get(comment.getItemId()).add(commentMapper.mapToDto(comment)));
+        }
+        return commentsByItem;
+    }
+
+    private class ItemImport implements ItemImportReader.RowHandler {
+
+        private final User owner;
+        private final Map<Long, ItemDto> rows = new LinkedHashMap<>();
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private int imported;
+
+        private ItemImport(User owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void row(long line, ItemDto itemDto) {
+            if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+                error(line, "Заполните название");
+            } else if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+                error(line, "Заполните описание");
+            } else if (itemDto.getAvailable() == null) {
+                error(line, "Доступность для бронирования должна быть заполнена");
+            } else if (itemDto.getName().length() > NAME_MAX_LENGTH) {
+                error(line, String.format("Название длиннее %d символов", NAME_MAX_LENGTH));
+            } else if (itemDto.getDescription().length() > DESCRIPTION_MAX_LENGTH) {
+                error(line, String.format("Описание длиннее %d символов", DESCRIPTION_MAX_LENGTH));
+            } else {
+                rows.put(line, itemDto);
+                if (rows.size() >= importChunkSize) {
+                    flush();
+                }
+            }
+        }
+
+        @Override
+        public void error(long line, String error) {
+            errors.add(new ItemImportErrorDto(line, error));
+        }
+
+        private void flush() {
+            Map<Long, ItemRequest> requests;
+            Map<Long, Item> items = new LinkedHashMap<>();
+
+            if (rows.isEmpty()) {
+                return;
+            }
+            requests = itemRequestService.getRequests(rows.values().stream()
+                            .map(ItemDto::getRequestId)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+            rows.forEach((line, itemDto) -> {
+                Long requestId = itemDto.getRequestId();
+
+                if (requestId != null && !requests.containsKey(requestId)) {
+                    error(line, String.format("Запрос с id=%d на добавление вещи не найден.", requestId));
+                } else {
+                    Item item = itemMapper.mapToItemModel(itemDto, owner, requests.get(requestId));
+                    item.setId(null);
+                    items.put(line, item);
+                }
+            });
+            rows.clear();
+
+            // Предыдущие части уже сохранены, поэтому ошибка БД отклоняет только строки этой части
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemRepository.saveAll(items.values());
+                    items.values().forEach(itemSearchEngine::indexItem);
+                    if (items.values().stream().anyMatch(Item::getAvailable)) {
+                        itemSearchCache.invalidateAll();
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Часть импорта вещей владельца с id={} не сохранена: {}", owner.getId(), e.getMessage());
+                items.keySet().forEach(line -> error(line, "Часть импорта с этой строкой не сохранена: "
+                        + "данные не прошли проверку БД."));
+                items.clear();
+            }
+            // Иначе контекст персистентности запроса удерживал бы все импортированные вещи
+            entityManager.clear();
+            imported += items.size();
+        }
+    }
 }
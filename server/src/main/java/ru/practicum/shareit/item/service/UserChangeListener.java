@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+
+// Слушатели вызываются в транзакции изменения: кэши и индекс сами откладывают вытеснение до ее завершения
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeListener {
+
+    private final ItemCardCache itemCardCache;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSearchEngine itemSearchEngine;
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        // Имя автора входит в комментарии карточек вещей
+        itemCardCache.invalidateAll();
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.getDeletedItemIds().forEach(itemSearchEngine::removeItem);
+        itemCardCache.invalidateAll();
+        itemSearchCache.invalidateAll();
+        log.debug("Из индекса поиска убраны вещи удаленного пользователя с id={}: {}",
+                event.getUserId(), event.getDeletedItemIds().size());
+    }
+}
@@ -3,11 +3,13 @@ package ru.practicum.shareit.request.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Mapper(componentModel = "spring", uses = ItemMapper.class)
 public interface ItemRequestMapper {
@@ -19,4 +21,7 @@ public interface ItemRequestMapper {
     ItemRequest mapToModel(ItemRequestDto requestDto, User requester, LocalDateTime created);
 
     ItemRequestDto mapToDto(ItemRequest request);
+
+    @Mapping(source = "items", target = "items")
+    ItemRequestDto mapToDto(ItemRequest request, Collection<Item> items);
 }
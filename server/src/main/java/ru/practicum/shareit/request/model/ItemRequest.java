@@ -3,6 +3,8 @@ package ru.practicum.shareit.request.model;
 
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,13 +21,16 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "requests")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item_requests")
+@NamedEntityGraph(name = "ItemRequest.withItems", attributeNodes = @NamedAttributeNode("items"))
 @Generated
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_sequence")
+    @SequenceGenerator(name = "requests_sequence", sequenceName = "requests_seq", allocationSize = 50)
     @Column(name = "request_id")
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester", referencedColumnName = "user_id")
     private User requester;
     private String description;
@@ -3,17 +3,25 @@ package ru.practicum.shareit.request.repository;
 import lombok.Generated;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
+import java.util.Optional;
 
 @Repository
 @Generated
 public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
 
+    @EntityGraph("ItemRequest.withItems")
+    Optional<ItemRequest> findDetailedById(long requestId);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id = ?1 ORDER BY r.created DESC")
     Collection<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long requesterId);
 
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> ?1 ORDER BY r.created DESC")
     Page<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(long requesterId, Pageable pageable);
 }
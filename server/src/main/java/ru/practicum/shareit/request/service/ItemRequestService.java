@@ -4,6 +4,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemRequestService {
 
@@ -13,6 +14,8 @@ public interface ItemRequestService {
 
     ItemRequest getRequest(long requestId);
 
+    List<ItemRequest> getRequests(Collection<Long> requestIds);
+
     Collection<ItemRequestDto> getOwnItemRequests(long requesterId);
 
     Collection<ItemRequestDto> getOtherUsersRequests(long requesterId, int startingIndex, Integer collectionSize);
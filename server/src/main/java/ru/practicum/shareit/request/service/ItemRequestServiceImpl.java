@@ -2,10 +2,12 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -14,9 +16,14 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +34,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserService userService;
     private final ItemRequestRepository repository;
     private final ItemRequestMapper mapper;
+    private final ItemRepository itemRepository;
 
     @Override
     public ItemRequestDto addRequest(ItemRequestDto requestDto, long requesterId) {
@@ -47,7 +55,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                             requesterId));
         }
 
-        return mapper.mapToDto(this.getRequest(requestId));
+        Optional<ItemRequest> requestOptional = repository.findDetailedById(requestId);
+
+        if (requestOptional.isEmpty()) {
+            throw new NotFoundException(
+                    String.format("Запрос с id=%d на добавление вещи не найден.", requestId));
+        }
+
+        return mapper.mapToDto(requestOptional.get());
     }
 
     @Override
@@ -62,6 +77,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return requestOptional.get();
     }
 
+    @Override
+    public List<ItemRequest> getRequests(Collection<Long> requestIds) {
+        return StreamSupport.stream(repository.findAllById(requestIds).spliterator(), false)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Collection<ItemRequestDto> getOwnItemRequests(long requesterId) {
         if (userService.userNotFound(requesterId)) {
@@ -69,28 +90,33 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                             "пользователь с id=%d не найден", requesterId));
         }
 
-        return repository.findAllByRequesterIdOrderByCreatedDesc(requesterId).stream()
-                .map(mapper::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(repository.findAllByRequesterIdOrderByCreatedDesc(requesterId));
     }
 
     @Override
     public Collection<ItemRequestDto> getOtherUsersRequests(long requesterId, int startingIndex,
                                                             Integer collectionSize) {
-        if (collectionSize == null) {
-            collectionSize = Integer.MAX_VALUE;
-        }
-
         if (userService.userNotFound(requesterId)) {
             throw new NotFoundException(
                     String.format("Ошибка при получении запросов других пользователей на добавление вещи: " +
                             "пользователь с id=%d не найден", requesterId));
         }
 
-        return repository.findAllByRequesterIdNotOrderByCreatedDesc(
-                requesterId, Pageable.ofSize(startingIndex + collectionSize)).stream()
-                .skip(startingIndex)
-                .map(mapper::mapToDto)
+        return mapToDtos(repository.findAllByRequesterIdNotOrderByCreatedDesc(
+                requesterId, OffsetPageRequest.of(startingIndex, collectionSize)).getContent());
+    }
+
+    private List<ItemRequestDto> mapToDtos(Collection<ItemRequest> requests) {
+        Map<Long, List<Item>> itemsByRequest = new HashMap<>();
+        requests.forEach(request -> itemsByRequest.put(request.getId(), new ArrayList<>()));
+
+        if (!requests.isEmpty()) {
+            itemRepository.findAllByRequestIdIn(itemsByRequest.keySet())
+                    .forEach(item -> itemsByRequest.get(item.getRequest().getId()).add(item));
+        }
+
+        return requests.stream()
+                .map(request -> mapper.mapToDto(request, itemsByRequest.get(request.getId())))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+// Публикуется после удаления пользователя и его вещей, до коммита
+@Getter
+@AllArgsConstructor
+public class UserDeletedEvent {
+    private final long userId;
+    private final Collection<Long> deletedItemIds;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Публикуется внутри изменения пользователя, до коммита
+@Getter
+@AllArgsConstructor
+public class UserUpdatedEvent {
+    private final long userId;
+}
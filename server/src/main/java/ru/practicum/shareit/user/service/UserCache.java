@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.VersionedCache;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.user.model.User;
+
+@Component
+@Slf4j
+public class UserCache {
+
+    private final VersionedCache users;
+
+    public UserCache(CacheManager cacheManager) {
+        this.users = new VersionedCache(cacheManager.getCache(CacheConfig.USERS));
+    }
+
+    public User get(long userId) {
+        return users.get(userId, User.class);
+    }
+
+    public long getVersion() {
+        return users.getVersion();
+    }
+
+    public void put(long userId, User user, long loadVersion) {
+        if (users.put(userId, user, loadVersion)) {
+            log.debug("Сохранен пользователь с id={}", userId);
+        }
+    }
+
+    public void invalidate(long userId) {
+        users.evict(userId);
+    }
+}
@@ -2,19 +2,24 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,6 +32,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto addUserDto(UserDto userDto) {
@@ -52,7 +59,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserById(long userId) {
-        Optional<User> user = userRepository.findById(userId);
+        Optional<User> user = findUser(userId);
 
         if (user.isEmpty()) {
             throw new NotFoundException(
@@ -72,7 +79,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean userNotFound(long userId) {
-        return !userRepository.existsById(userId);
+        return findUser(userId).isEmpty();
     }
 
     @Override
@@ -104,6 +111,8 @@ public class UserServiceImpl implements UserService {
 
         try {
             user = userRepository.updateUser(user, targetFields);
+            userCache.invalidate(userId);
+            eventPublisher.publishEvent(new UserUpdatedEvent(userId));
 
             log.debug("Обновлен пользователь: {}", user);
             return userMapper.mapToUserDto(user);
@@ -117,12 +126,44 @@ public class UserServiceImpl implements UserService {
     public void deleteUserById(long id) {
         if (userRepository.existsById(id)) {
             Optional<User> userOptional = userRepository.findById(id);
+            List<Long> deletedItemIds;
             if (userOptional.isPresent()) {
-                itemRepository.deleteAllByOwner(userOptional.get());
+                deletedItemIds = itemRepository.deleteAllByOwner(userOptional.get()).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList());
 
             } else throw new RuntimeException();
             userRepository.deleteById(id);
+            userCache.invalidate(id);
+            eventPublisher.publishEvent(new UserDeletedEvent(id, deletedItemIds));
 
         } else throw new NotFoundException(String.format("Ошибка удаления: пользователь с id=%d не найден.", id));
     }
+
+    // В кэше лежит отсоединенная копия без коллекций, каждый вызов получает свой экземпляр
+    private Optional<User> findUser(long userId) {
+        User user = userCache.get(userId);
+        long loadVersion;
+
+        if (user == null) {
+            loadVersion = userCache.getVersion();
+            user = userRepository.findById(userId)
+                    .map(this::copyUser)
+                    .orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            userCache.put(userId, user, loadVersion);
+        }
+
+        return Optional.of(copyUser(user));
+    }
+
+    private User copyUser(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
 }
@@ -0,0 +1,45 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (item_name gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops) WHERE available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = to_regclass(''bookings'') AND conname = ''excl_bookings_item_time'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_time
+            EXCLUDE USING GIST (for_item WITH =, tsrange(start_time, end_time) WITH &&) WHERE (approved IS NOT FALSE);
+    END IF;
+EXCEPTION
+    WHEN duplicate_table OR duplicate_object THEN
+        NULL;
+    WHEN undefined_table THEN
+        RAISE WARNING ''Ограничение excl_bookings_item_time не создано: таблица bookings еще не создана'';
+    WHEN exclusion_violation THEN
+        RAISE WARNING ''Ограничение excl_bookings_item_time не создано: в bookings есть пересекающиеся бронирования'';
+END';
+
+-- Идентификаторы выдает только Hibernate из *_seq, поэтому IDENTITY в старых базах снимается,
+-- а последовательности догоняют уже выданные идентификаторы
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('users_seq', MAX(user_id)) FROM users HAVING MAX(user_id) >= (SELECT last_value FROM users_seq);
+
+ALTER TABLE requests ALTER COLUMN request_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('requests_seq', MAX(request_id)) FROM requests HAVING MAX(request_id) >= (SELECT last_value FROM requests_seq);
+
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('items_seq', MAX(item_id)) FROM items HAVING MAX(item_id) >= (SELECT last_value FROM items_seq);
+
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('bookings_seq', MAX(booking_id)) FROM bookings HAVING MAX(booking_id) >= (SELECT last_value FROM bookings_seq);
+
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('comments_seq', MAX(comment_id)) FROM comments HAVING MAX(comment_id) >= (SELECT last_value FROM comments_seq);
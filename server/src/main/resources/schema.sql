@@ -1,15 +1,19 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    user_id   BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id   BIGINT,
     user_name VARCHAR(255) NOT NULL,
     email     VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (user_id),
     CONSTRAINT uq_email UNIQUE (email)
 );
 
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests
 (
-    request_id  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    request_id  BIGINT,
     requester   BIGINT        NOT NULL,
     description VARCHAR(1024) NOT NULL,
     created     TIMESTAMP     NOT NULL,
@@ -17,9 +21,11 @@ CREATE TABLE IF NOT EXISTS requests
     CONSTRAINT fk_requested_by_user FOREIGN KEY (requester) REFERENCES users (user_id) ON UPDATE CASCADE
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-    item_id     BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id     BIGINT,
     owner_id    BIGINT,
     item_name   VARCHAR(255)  NOT NULL,
     description VARCHAR(1024) NOT NULL,
@@ -31,9 +37,11 @@ CREATE TABLE IF NOT EXISTS items
     CONSTRAINT item_name_descr_not_blank CHECK (LENGTH(item_name) > 0 AND LENGTH(description) > 0)
 );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings
 (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    booking_id BIGINT,
     for_item   BIGINT,
     by_user    BIGINT,
     start_time TIMESTAMP NOT NULL,
@@ -45,9 +53,11 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT end_not_before_start CHECK (start_time < end_time)
 );
 
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS comments
 (
-    comment_id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    comment_id        BIGINT,
     author_id         BIGINT,
     commented_item_id BIGINT,
     comment_text      VARCHAR(1024) NOT NULL,
@@ -56,4 +66,20 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT fk_comment_user FOREIGN KEY (author_id) REFERENCES users (user_id) ON UPDATE CASCADE,
     CONSTRAINT fk_comment_item FOREIGN KEY (commented_item_id) REFERENCES items (item_id) ON UPDATE CASCADE,
     CONSTRAINT com_text_not_blank CHECK (LENGTH(comment_text) > 0)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (for_item, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (for_item, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (by_user, start_time DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (for_request);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (commented_item_id);
@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает вставку строк так, как ее выполнял Hibernate с IDENTITY (по запросу на строку),
+ * и так, как он выполняет ее с пулом из последовательности и пакетной вставкой.
+ * Запускается только против PostgreSQL, адрес которого задан в SHAREIT_BENCHMARK_DB_URL.
+ */
+@Slf4j
+@EnabledIfEnvironmentVariable(named = "SHAREIT_BENCHMARK_DB_URL", matches = ".+")
+public class BatchInsertBenchmarkTest {
+
+    private static final int ROWS = 5000;
+    private static final int BATCH_SIZE = 50;
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void batchedInsertShouldBeFasterThanIdentityInsertTest() throws SQLException {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE bench_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY "
+                        + "PRIMARY KEY, user_name VARCHAR(255) NOT NULL, email VARCHAR(512) NOT NULL)");
+                statement.execute("CREATE TEMP TABLE bench_sequence (id BIGINT PRIMARY KEY, "
+                        + "user_name VARCHAR(255) NOT NULL, email VARCHAR(512) NOT NULL)");
+                statement.execute("CREATE TEMP SEQUENCE bench_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+            }
+            long identityNanos = Long.MAX_VALUE;
+            long batchedNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                identityNanos = Math.min(identityNanos, insertWithIdentity(connection));
+                batchedNanos = Math.min(batchedNanos, insertWithSequenceBatches(connection));
+            }
+            log.info("Вставка {} строк: IDENTITY {} мс, последовательность и пакеты по {} — {} мс",
+                    ROWS, identityNanos / 1_000_000, BATCH_SIZE, batchedNanos / 1_000_000);
+            assertTrue(batchedNanos < identityNanos);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_USER", "root"));
+        properties.setProperty("password", System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_PASSWORD", "root"));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        return DriverManager.getConnection(System.getenv("SHAREIT_BENCHMARK_DB_URL"), properties);
+    }
+
+    private long insertWithIdentity(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity (user_name, email) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, "User Name");
+                insert.setString(2, "identity" + i + "@mail.ru");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        long elapsed = System.nanoTime() - start;
+        truncate(connection, "bench_identity");
+        return elapsed;
+    }
+
+    private long insertWithSequenceBatches(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement nextValue = connection.prepareStatement("SELECT nextval('bench_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO bench_sequence (id, user_name, email) VALUES (?, ?, ?)")) {
+            for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+                long hi;
+                try (ResultSet resultSet = nextValue.executeQuery()) {
+                    resultSet.next();
+                    hi = resultSet.getLong(1);
+                }
+                for (int i = from; i < Math.min(from + BATCH_SIZE, ROWS); i++) {
+                    insert.setLong(1, hi - BATCH_SIZE + 1 + i - from);
+                    insert.setString(2, "User Name");
+                    insert.setString(3, "sequence" + i + "@mail.ru");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        long elapsed = System.nanoTime() - start;
+        truncate(connection, "bench_sequence");
+        return elapsed;
+    }
+
+    private void truncate(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE " + table);
+        }
+        connection.commit();
+    }
+}
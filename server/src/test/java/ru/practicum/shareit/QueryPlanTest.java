@@ -0,0 +1,217 @@
+package ru.practicum.shareit;
+
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Проверяет планы H2, а не PostgreSQL: запросы выполняются с теми же аргументами, что строит makeArguments,
+// и EXPLAIN получает значения, которые Hibernate на самом деле передал в запрос
+@DataJpaTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:query-plan-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    private static final Set<String> KNOWN_SCANS = Set.of(
+            // Поиск по подстроке не может использовать btree-индекс
+            "searchAvailableItemsByNameAndDescription",
+            "searchAvailableItemIdsByNameAndDescription"
+    );
+
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+    private CommentRepository commentRepository;
+    private ItemRequestRepository itemRequestRepository;
+    private DataSource dataSource;
+
+    @Test
+    public void queriesShouldNotUseTableScanTest() throws Exception {
+        List<String> failures = new ArrayList<>();
+        Map<Object, Class<?>> repositories = Map.of(
+                bookingRepository, BookingRepository.class,
+                itemRepository, ItemRepository.class,
+                commentRepository, CommentRepository.class,
+                itemRequestRepository, ItemRequestRepository.class);
+        for (Map.Entry<Object, Class<?>> repository : repositories.entrySet()) {
+            for (Method method : repository.getValue().getDeclaredMethods()) {
+                // Удаление изменило бы данные для остальных запросов
+                if (method.getName().startsWith("delete") || KNOWN_SCANS.contains(method.getName())) {
+                    continue;
+                }
+                StatementRecorder.STATEMENTS.clear();
+                Object result = method.invoke(repository.getKey(), makeArguments(method));
+                if (result instanceof Stream) {
+                    try (Stream<?> stream = (Stream<?>) result) {
+                        stream.forEach(element -> { });
+                    }
+                }
+                assertFalse(StatementRecorder.STATEMENTS.isEmpty(), method.getName());
+                for (RecordedStatement statement : StatementRecorder.STATEMENTS) {
+                    Matcher matcher = TABLE_SCAN.matcher(explain(statement));
+                    if (matcher.find()) {
+                        failures.add(method.getName() + " scans " + matcher.group(1));
+                    }
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    private Object[] makeArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == long.class || types[i] == Long.class) {
+                arguments[i] = 1L;
+            } else if (types[i] == int.class) {
+                arguments[i] = 10;
+            } else if (types[i] == Boolean.class) {
+                arguments[i] = true;
+            } else if (types[i] == LocalDateTime.class) {
+                arguments[i] = LocalDateTime.now();
+            } else if (types[i] == String.class) {
+                arguments[i] = "text";
+            } else if (Collection.class.isAssignableFrom(types[i])) {
+                arguments[i] = List.of(1L);
+            } else if (types[i] == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 10);
+            } else {
+                throw new IllegalArgumentException("Неизвестный тип параметра: " + types[i]);
+            }
+        }
+        return arguments;
+    }
+
+    private String explain(RecordedStatement recorded) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + recorded.sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setObject(i, recorded.parameters.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? StatementRecorder.wrap(bean, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    static class StatementRecorder {
+
+        static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        // Соединения и подготовленные запросы оборачиваются, чтобы запомнить SQL и значения его параметров
+        static Object wrap(Object target, Class<?> type) {
+            InvocationHandler handler = (proxy, method, arguments) -> {
+                // @Sql сравнивает источник данных с источником менеджера транзакций, поэтому обертка равна только себе
+                if (method.getName().equals("equals") && arguments.length == 1) {
+                    return proxy == arguments[0];
+                } else if (method.getName().equals("hashCode") && arguments == null) {
+                    return System.identityHashCode(proxy);
+                }
+                Object result = invoke(target, method, arguments);
+
+                if (result instanceof Connection) {
+                    return wrap(result, Connection.class);
+                } else if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                    RecordedStatement recorded = new RecordedStatement((String) arguments[0]);
+                    STATEMENTS.add(recorded);
+                    return wrapStatement((PreparedStatement) result, recorded);
+                }
+                return result;
+            };
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object wrapStatement(PreparedStatement target, RecordedStatement recorded) {
+            InvocationHandler handler = (proxy, method, arguments) -> {
+                if (method.getName().startsWith("set") && arguments != null && arguments.length >= 2
+                        && arguments[0] instanceof Integer) {
+                    recorded.parameters.put((Integer) arguments[0],
+                            method.getName().equals("setNull") ? null : arguments[1]);
+                }
+                return invoke(target, method, arguments);
+            };
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] arguments) throws Throwable {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    static class RecordedStatement {
+
+        private final String sql;
+        private final Map<Integer, Object> parameters = new HashMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+}
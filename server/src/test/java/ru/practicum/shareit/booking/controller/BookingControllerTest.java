@@ -15,18 +15,26 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -131,6 +139,44 @@ public class BookingControllerTest {
         assertEquals(HttpStatus.CONFLICT.value(), servletResponse.getStatus());
     }
 
+    @Test
+    public void addBookingsTest() throws Exception {
+        UserDto user = addDefaultUser("email@mail.ru");
+        UserDto booker = addDefaultUser("newEmail@mail.ru");
+        long itemId1 = addDefaultItem(user.getId()).getId();
+        long itemId2 = addDefaultItem(user.getId()).getId();
+
+        BookingDtoRequest booking1 = makeDefaultBookingDtoRequest(itemId1);
+        BookingDtoRequest booking2 = makeDefaultBookingDtoRequest(itemId1);
+        booking2.setStart(booking1.getEnd().minusHours(1));
+        booking2.setEnd(booking1.getEnd().plusDays(1));
+        BookingDtoRequest booking3 = makeDefaultBookingDtoRequest(itemId2);
+        BookingDtoRequest booking4 = makeDefaultBookingDtoRequest(100L);
+        BookingDtoRequest booking5 = makeDefaultBookingDtoRequest(itemId2);
+        booking5.setEnd(booking5.getStart().minusHours(1));
+
+        MockHttpServletResponse servletResponse = mockMvc.perform(
+                        post(defaultUri + "/batch")
+                                .content(objectMapper.writeValueAsString(
+                                        List.of(booking1, booking2, booking3, booking4, booking5)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .headers(getDefaultHeader(booker.getId())))
+                .andReturn().getResponse();
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+
+        List<BookingBatchResultDto> results = objectMapper.readValue(
+                servletResponse.getContentAsString(), new TypeReference<>() {
+                });
+        assertEquals(List.of(BookingBatchStatus.CREATED, BookingBatchStatus.CONFLICT, BookingBatchStatus.CREATED,
+                        BookingBatchStatus.NOT_FOUND, BookingBatchStatus.INVALID),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(itemId1, results.get(0).getBooking().getItem().getId());
+        assertEquals(itemId2, results.get(2).getBooking().getItem().getId());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(1).getError());
+        assertEquals(2, getBookingsByBookerAndStatus(booker.getId(), BookingStatus.WAITING.toString()).size());
+    }
+
     @Test
     public void shouldBeExceptionForBookingUnavailableItem() throws Exception {
         UserDto user = addDefaultUser("email@mail.ru");
@@ -218,6 +264,48 @@ public class BookingControllerTest {
                         userId, BookingStatus.ALL.toString()));
     }
 
+    @Test
+    public void getBookingsOwnerAndStatusAfterCursorTest() throws Exception {
+        UserDto user = addDefaultUser("email@mail.ru");
+        UserDto booker = addDefaultUser("newEmail@mail.ru");
+
+        BookingDto booking1 = addBooking(makeDefaultBookingDtoRequest(addDefaultItem(user.getId()).getId()),
+                booker.getId());
+        BookingDto booking2 = addBooking(makeDefaultBookingDtoRequest(addDefaultItem(user.getId()).getId()),
+                booker.getId());
+
+        BookingPageDto page1 = getBookingsOwnerAndStatusAfter(user.getId(), null);
+        assertEquals(List.of(booking2), page1.getBookings());
+
+        BookingPageDto page2 = getBookingsOwnerAndStatusAfter(user.getId(), page1.getNext());
+        assertEquals(List.of(booking1), page2.getBookings());
+    }
+
+    @Test
+    public void exportBookingsTest() throws Exception {
+        UserDto user = addDefaultUser("email@mail.ru");
+        UserDto booker = addDefaultUser("newEmail@mail.ru");
+        long itemId = addDefaultItem(user.getId()).getId();
+
+        BookingDtoRequest request1 = makeDefaultBookingDtoRequest(itemId);
+        BookingDto booking1 = addBooking(request1, booker.getId());
+        BookingDtoRequest request2 = makeDefaultBookingDtoRequest(itemId);
+        request2.setStart(request1.getEnd());
+        request2.setEnd(request1.getEnd().plusDays(1));
+        BookingDto booking2 = addBooking(request2, booker.getId());
+
+        List<Long> expected = List.of(booking2.getId(), booking1.getId());
+        assertEquals(expected, exportBookings("/owner/export", user.getId()));
+        assertEquals(expected, exportBookings("/export", booker.getId()));
+        assertEquals(List.of(), exportBookings("/export", user.getId()));
+
+        MockHttpServletResponse servletResponse = mockMvc.perform(
+                        get(defaultUri + "/owner/export")
+                                .headers(getDefaultHeader(100L)))
+                .andReturn().getResponse();
+        assertEquals(HttpStatus.NOT_FOUND.value(), servletResponse.getStatus());
+    }
+
     @Test
     public void setApprovalTest() throws Exception {
         UserDto user = addDefaultUser("email@mail.ru");
@@ -254,6 +342,24 @@ public class BookingControllerTest {
         assertEquals(HttpStatus.NOT_FOUND.value(), servletResponse.getStatus());
     }
 
+    private List<Long> exportBookings(String path, long userId) throws Exception {
+        MockHttpServletResponse servletResponse = mockMvc.perform(
+                        get(defaultUri + path)
+                                .headers(getDefaultHeader(userId)))
+                .andReturn().getResponse();
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, servletResponse.getContentType());
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : servletResponse.getContentAsString(StandardCharsets.UTF_8).lines()
+                .collect(Collectors.toList())) {
+            BookingDto booking = objectMapper.readValue(line, BookingDto.class);
+            assertNull(booking.getItem().getComments());
+            ids.add(booking.getId());
+        }
+        return ids;
+    }
+
     private HttpHeaders getDefaultHeader(Long userId) {
 
         HttpHeaders httpHeaders = new HttpHeaders();
@@ -275,6 +381,20 @@ public class BookingControllerTest {
         return objectMapper.readValue(servletResponse.getContentAsString(), new TypeReference<>() {});
     }
 
+    private BookingPageDto getBookingsOwnerAndStatusAfter(Long ownerId, String cursor) throws Exception {
+
+        MockHttpServletResponse servletResponse = mockMvc.perform(
+                        get(defaultUri + "/owner/seek")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .headers(getDefaultHeader(ownerId))
+                                .param("state", BookingStatus.ALL.toString())
+                                .param("cursor", cursor)
+                                .param("size", ((Integer) 1).toString()))
+                .andReturn().getResponse();
+
+        return objectMapper.readValue(servletResponse.getContentAsString(), BookingPageDto.class);
+    }
+
     private Collection<BookingDto> getBookingsByBookerAndStatus(Long booker, String state) throws Exception {
 
         MockHttpServletResponse servletResponse = mockMvc.perform(get(defaultUri)
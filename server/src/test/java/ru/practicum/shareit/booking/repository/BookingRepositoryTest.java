@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.repository;
 
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
@@ -18,7 +20,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @AllArgsConstructor(onConstructor_ = @Autowired)
@@ -30,6 +32,7 @@ public class BookingRepositoryTest {
     private UserRepository userRepository;
     private ItemRepository itemRepository;
     private BookingRepository bookingRepository;
+    private TestEntityManager entityManager;
 
     @Test
     public void getAllByBookerIdOrOwnerIdAndOrderByStartTimeDescTest() {
@@ -43,8 +46,8 @@ public class BookingRepositoryTest {
         futureBooking.setStartTime(futureBooking.getStartTime().plusMonths(1));
         futureBooking.setEndTime(futureBooking.getEndTime().plusMonths(1));
         futureBooking = bookingRepository.save(futureBooking);
-        assertEquals(List.of(futureBooking), bookingRepository.getAllByBookerIdOrItemOwnerIdOrderByStartTimeDesc(
-                booker.getId(), null, Pageable.unpaged()).getContent());
+        assertEquals(List.of(futureBooking), bookingRepository.getAllByBookerIdOrderByStartTimeDesc(
+                booker.getId(), Pageable.unpaged()));
 
         User owner2 = makeDefaultUser();
         owner2.setEmail("anotherEmail@mail.com");
@@ -55,8 +58,8 @@ public class BookingRepositoryTest {
         Booking currentBooking = makeDefaultBooking(item2, booker);
         currentBooking = bookingRepository.save(currentBooking);
         assertEquals(List.of(futureBooking, currentBooking),
-                bookingRepository.getAllByBookerIdOrItemOwnerIdOrderByStartTimeDesc(
-                        booker.getId(), null, Pageable.unpaged()).getContent());
+                bookingRepository.getAllByBookerIdOrderByStartTimeDesc(
+                        booker.getId(), Pageable.unpaged()));
     }
 
     @Test
@@ -71,8 +74,8 @@ public class BookingRepositoryTest {
         preApprovedBooking.setApproved(true);
         preApprovedBooking = bookingRepository.save(preApprovedBooking);
         assertEquals(List.of(preApprovedBooking),
-                bookingRepository.getWaitingOrRejectedBookings(
-                        booker.getId(), null, true, Pageable.unpaged()).getContent());
+                bookingRepository.getWaitingOrRejectedBookingsByBooker(
+                        booker.getId(), true, Pageable.unpaged()));
 
         User owner2 = makeDefaultUser();
         owner2.setEmail("anotherEmail@mail.com");
@@ -84,8 +87,8 @@ public class BookingRepositoryTest {
         preRejectedBooking.setApproved(false);
         preRejectedBooking = bookingRepository.save(preRejectedBooking);
         assertEquals(List.of(preRejectedBooking),
-                bookingRepository.getWaitingOrRejectedBookings(
-                        booker.getId(), null, false, Pageable.unpaged()).getContent());
+                bookingRepository.getWaitingOrRejectedBookingsByBooker(
+                        booker.getId(), false, Pageable.unpaged()));
     }
 
     @Test
@@ -101,8 +104,8 @@ public class BookingRepositoryTest {
         pastBooking.setStartTime(pastBooking.getStartTime().minusMonths(1));
         pastBooking.setEndTime(pastBooking.getEndTime().minusMonths(1));
         pastBooking = bookingRepository.save(pastBooking);
-        assertEquals(List.of(pastBooking), bookingRepository.getPastBookingsByBookerIdOrOwnerId(
-                booker.getId(), null, Pageable.unpaged()).getContent());
+        assertEquals(List.of(pastBooking), bookingRepository.getPastBookingsByBooker(
+                booker.getId(), Pageable.unpaged()));
 
         User owner2 = makeDefaultUser();
         owner2.setEmail("anotherEmail@mail.com");
@@ -114,8 +117,8 @@ public class BookingRepositoryTest {
         currentBooking.setApproved(true);
         bookingRepository.save(currentBooking);
         assertEquals(List.of(pastBooking),
-                bookingRepository.getPastBookingsByBookerIdOrOwnerId(
-                        booker.getId(), null, Pageable.unpaged()).getContent());
+                bookingRepository.getPastBookingsByBooker(
+                        booker.getId(), Pageable.unpaged()));
     }
 
     @Test
@@ -131,8 +134,8 @@ public class BookingRepositoryTest {
         pastBooking.setStartTime(pastBooking.getStartTime().minusMonths(1));
         pastBooking.setEndTime(pastBooking.getEndTime().minusMonths(1));
         bookingRepository.save(pastBooking);
-        assertEquals(List.of(), bookingRepository.getCurrentBookings(
-                booker.getId(), null, Pageable.unpaged()).getContent());
+        assertEquals(List.of(), bookingRepository.getCurrentBookingsByBooker(
+                booker.getId(), Pageable.unpaged()));
 
         User owner2 = makeDefaultUser();
         owner2.setEmail("anotherEmail@mail.com");
@@ -145,8 +148,8 @@ public class BookingRepositoryTest {
         currentBooking.setStartTime(LocalDateTime.now().minusSeconds(1));
         currentBooking = bookingRepository.save(currentBooking);
         assertEquals(List.of(currentBooking),
-                bookingRepository.getCurrentBookings(
-                        booker.getId(), null, Pageable.unpaged()).getContent());
+                bookingRepository.getCurrentBookingsByBooker(
+                        booker.getId(), Pageable.unpaged()));
     }
 
     @Test
@@ -210,6 +213,64 @@ public class BookingRepositoryTest {
                 bookingRepository.getAllByItemOwnerId(owner2.getId()));
     }
 
+    @Test
+    public void getBookingsByOwnerTest() {
+        User owner1 = userRepository.save(makeDefaultUser());
+        Item item1 = itemRepository.save(makeDefaultItem(owner1));
+
+        User booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userRepository.save(booker);
+
+        Booking waitingBooking = bookingRepository.save(makeDefaultBooking(item1, booker));
+
+        Booking rejectedBooking = makeDefaultBooking(item1, booker);
+        rejectedBooking.setApproved(false);
+        rejectedBooking.setStartTime(rejectedBooking.getStartTime().plusMonths(1));
+        rejectedBooking.setEndTime(rejectedBooking.getEndTime().plusMonths(1));
+        rejectedBooking = bookingRepository.save(rejectedBooking);
+
+        User owner2 = makeDefaultUser();
+        owner2.setEmail("anotherEmail@mail.com");
+        owner2 = userRepository.save(owner2);
+        Item item2 = itemRepository.save(makeDefaultItem(owner2));
+        Booking otherBooking = bookingRepository.save(makeDefaultBooking(item2, booker));
+
+        assertEquals(List.of(rejectedBooking, waitingBooking),
+                bookingRepository.getAllByItemOwnerIdOrderByStartTimeDesc(owner1.getId(), Pageable.unpaged()));
+        assertEquals(List.of(waitingBooking),
+                bookingRepository.getWaitingOrRejectedBookingsByOwner(owner1.getId(), null, Pageable.unpaged()));
+        assertEquals(List.of(rejectedBooking),
+                bookingRepository.getFutureBookingsByOwnerAfter(owner1.getId(),
+                        LocalDateTime.now().plusYears(1), Long.MAX_VALUE, Pageable.ofSize(1)));
+        assertEquals(List.of(otherBooking),
+                bookingRepository.getFutureBookingsByOwner(owner2.getId(), Pageable.unpaged()));
+    }
+
+    @Test
+    public void findDetailedByIdTest() {
+        Item item = getItem();
+
+        User booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userRepository.save(booker);
+
+        long bookingId = bookingRepository.save(makeDefaultBooking(item, booker)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        assertFalse(Hibernate.isInitialized(booking.getItem()));
+        assertFalse(Hibernate.isInitialized(booking.getBooker()));
+        entityManager.clear();
+
+        booking = bookingRepository.findDetailedById(bookingId).orElseThrow();
+        assertTrue(Hibernate.isInitialized(booking.getItem()));
+        assertTrue(Hibernate.isInitialized(booking.getItem().getComments()));
+        assertTrue(Hibernate.isInitialized(booking.getBooker()));
+        assertFalse(Hibernate.isInitialized(booking.getItem().getOwner()));
+    }
+
     private Item getItem() {
         User owner1 = userRepository.save(makeDefaultUser());
         Item item1 = makeDefaultItem(owner1);
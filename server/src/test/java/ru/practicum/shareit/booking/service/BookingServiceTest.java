@@ -1,16 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -18,17 +34,36 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ActualItemBooking;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AllArgsConstructor(onConstructor_ = @Autowired)
 @AutoConfigureTestDatabase
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -38,6 +73,13 @@ public class BookingServiceTest {
     private UserService userService;
     private ItemService itemService;
     private BookingService bookingService;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private BookingRepository bookingRepository;
+    private UserRepository userRepository;
+    private ManualTicker cacheTicker;
+    private ItemRequestService itemRequestService;
+    private ObjectMapper objectMapper;
 
     @Test
     public void addBookingTest() {
@@ -113,6 +155,225 @@ public class BookingServiceTest {
                 () -> bookingService.addBooking(booking3, finalBooker.getId()));
     }
 
+    @Test
+    public void shouldAddOnlyOneOfConcurrentBookingsTest() throws Exception {
+        int bookersCount = 8;
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        BookingDtoRequest request = makeDefaultBookingDtoRequest(itemId);
+        List<Long> bookerIds = new ArrayList<>();
+
+        for (int i = 0; i < bookersCount; i++) {
+            UserDto booker = makeDefaultUser();
+            booker.setEmail("booker" + i + "@mail.ru");
+            bookerIds.add(userService.addUserDto(booker).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(bookersCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+        try {
+            for (long bookerId : bookerIds) {
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    return bookingService.addBooking(request, bookerId);
+                }));
+            }
+            startLatch.countDown();
+
+            int added = 0;
+            for (Future<BookingDto> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    added++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(DuplicateException.class, e.getCause());
+                }
+            }
+            assertEquals(1, added);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, bookingService.getBookingsUserAndState(
+                null, user.getId(), BookingStatus.ALL.toString(), 0, 10).size());
+    }
+
+    @Test
+    public void getFreeWindowsTest() {
+        LocalDateTime time1 = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime time2 = time1.plusDays(1);
+        LocalDateTime time3 = time2.plusDays(1);
+        LocalDateTime time4 = time3.plusDays(1);
+        LocalDateTime time5 = time4.plusDays(1);
+        LocalDateTime time6 = time5.plusDays(1);
+
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        assertEquals(List.of(new FreeWindowDto(time1, time6)), bookingService.getFreeWindows(itemId, time1, time6));
+
+        BookingDtoRequest booking1 = makeDefaultBookingDtoRequest(itemId);
+        booking1.setStart(time2);
+        booking1.setEnd(time3);
+        bookingService.addBooking(booking1, bookerId);
+
+        BookingDtoRequest booking2 = makeDefaultBookingDtoRequest(itemId);
+        booking2.setStart(time4);
+        booking2.setEnd(time5);
+        long bookingId2 = bookingService.addBooking(booking2, bookerId).getId();
+
+        assertEquals(List.of(new FreeWindowDto(time1, time2), new FreeWindowDto(time3, time4),
+                new FreeWindowDto(time5, time6)), bookingService.getFreeWindows(itemId, time1, time6));
+        assertEquals(List.of(new FreeWindowDto(time3, time4)),
+                bookingService.getFreeWindows(itemId, time2.plusHours(1), time4.plusHours(1)));
+
+        bookingService.setApproval(bookingId2, false, user.getId());
+        assertEquals(List.of(new FreeWindowDto(time1, time2), new FreeWindowDto(time3, time6)),
+                bookingService.getFreeWindows(itemId, time1, time6));
+        booking2.setStart(time3);
+        booking2.setEnd(time6);
+        bookingService.addBooking(booking2, bookerId);
+        assertEquals(List.of(new FreeWindowDto(time1, time2)), bookingService.getFreeWindows(itemId, time1, time6));
+    }
+
+    @Test
+    public void shouldNotCacheIntervalsLoadedBeforeCommitTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(1);
+        LocalDateTime to = end.plusDays(1);
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        BookingDtoRequest request = makeDefaultBookingDtoRequest(itemId);
+        request.setStart(start);
+        request.setEnd(end);
+        List<List<FreeWindowDto>> windowsBeforeCommit = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.addBooking(request, bookerId);
+            // Загрузка из другого потока между обновлением кэша и коммитом не видит нового бронирования
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    ExecutorService executor = Executors.newSingleThreadExecutor();
+                    try {
+                        windowsBeforeCommit.add(executor.submit(
+                                () -> bookingService.getFreeWindows(itemId, start, to)).get(10, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        executor.shutdownNow();
+                    }
+                }
+            });
+        });
+
+        assertEquals(List.of(List.of(new FreeWindowDto(start, to))), windowsBeforeCommit);
+        assertEquals(List.of(new FreeWindowDto(end, to)), bookingService.getFreeWindows(itemId, start, to));
+        assertThrows(DuplicateException.class, () -> bookingService.addBooking(request, bookerId));
+    }
+
+    @Test
+    public void shouldCheckOverlapInDatabaseTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        BookingDtoRequest request = makeDefaultBookingDtoRequest(itemId);
+        bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd());
+
+        // Бронирование другого экземпляра сервера, о котором кэш интервалов не знает
+        bookingRepository.save(Booking.builder()
+                .item(itemService.getItem(itemId))
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .startTime(request.getStart())
+                .endTime(request.getEnd())
+                .build());
+
+        assertThrows(DuplicateException.class, () -> bookingService.addBooking(request, bookerId));
+        assertEquals(List.of(BookingBatchStatus.CONFLICT), bookingService.addBookings(List.of(request), bookerId)
+                .stream()
+                .map(BookingBatchResultDto::getStatus)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldEvictIntervalsRejectedByOtherInstanceTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        BookingDtoRequest request = makeDefaultBookingDtoRequest(itemId);
+        long bookingId = bookingService.addBooking(request, bookerId).getId();
+        assertEquals(List.of(), bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd()));
+
+        // Отклонение другим экземпляром сервера, о котором кэш интервалов не знает
+        transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.findById(bookingId).orElseThrow().setApproved(false));
+
+        assertDoesNotThrow(() -> bookingService.addBooking(request, bookerId));
+        assertEquals(List.of(), bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd()));
+    }
+
+    @Test
+    public void shouldReloadIntervalsAfterTtlTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        BookingDtoRequest request = makeDefaultBookingDtoRequest(itemId);
+        List<FreeWindowDto> freeWindows = List.of(new FreeWindowDto(request.getStart(), request.getEnd()));
+        assertEquals(freeWindows, bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd()));
+
+        bookingRepository.save(Booking.builder()
+                .item(itemService.getItem(itemId))
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .startTime(request.getStart())
+                .endTime(request.getEnd())
+                .build());
+
+        assertEquals(freeWindows, bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd()));
+        cacheTicker.advance(Duration.ofMinutes(1));
+        assertEquals(List.of(), bookingService.getFreeWindows(itemId, request.getStart(), request.getEnd()));
+    }
+
+    @Test
+    public void addBookingsTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+
+        BookingDtoRequest booked = makeDefaultBookingDtoRequest(itemId);
+        bookingService.addBooking(booked, bookerId);
+        BookingDtoRequest free = makeDefaultBookingDtoRequest(itemId);
+        free.setStart(booked.getEnd());
+        free.setEnd(booked.getEnd().plusDays(1));
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(
+                List.of(booked, free, makeDefaultBookingDtoRequest(itemId)), user.getId());
+        assertEquals(List.of(BookingBatchStatus.NOT_FOUND, BookingBatchStatus.NOT_FOUND,
+                BookingBatchStatus.NOT_FOUND), results.stream()
+                .map(BookingBatchResultDto::getStatus)
+                .collect(Collectors.toList()));
+
+        results = bookingService.addBookings(List.of(booked, free), bookerId);
+        assertEquals(BookingBatchStatus.CONFLICT, results.get(0).getStatus());
+        assertEquals(BookingBatchStatus.CREATED, results.get(1).getStatus());
+        assertEquals(List.of(), bookingService.getFreeWindows(itemId, booked.getStart(), free.getEnd()));
+
+        List<BookingDtoRequest> tooMany = Collections.nCopies(101, free);
+        assertThrows(ValidationException.class, () -> bookingService.addBookings(tooMany, bookerId));
+    }
+
     @Test
     public void shouldBeExceptionForBookingUnavailableItem() {
         UserDto user = userService.addUserDto(makeDefaultUser());
@@ -356,6 +617,235 @@ public class BookingServiceTest {
         assertEquals(bookingsMap.get(ActualItemBooking.NEXT).getId(), bookingDto2.getId());
     }
 
+    @Test
+    public void getLastAndNextBookingByItemWithPastOnlyTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        Item item = itemService.getItem(itemService.addItemDto(makeDefaultItem(), user.getId()).getId());
+
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userService.addUserDto(booker);
+
+        BookingDtoRequest earlierRequest = makeDefaultBookingDtoRequest(item.getId());
+        earlierRequest.setStart(now.minusDays(4));
+        earlierRequest.setEnd(now.minusDays(3));
+        bookingService.addBooking(earlierRequest, booker.getId());
+
+        BookingDtoRequest laterRequest = makeDefaultBookingDtoRequest(item.getId());
+        laterRequest.setStart(now.minusDays(2));
+        laterRequest.setEnd(now.minusDays(1));
+        BookingDto laterBooking = bookingService.addBooking(laterRequest, booker.getId());
+
+        // Без текущих и будущих бронирований последним остается самое позднее из завершившихся
+        Map<ActualItemBooking, BookingDtoShort> bookingsMap =
+                bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertEquals(laterBooking.getId(), bookingsMap.get(ActualItemBooking.LAST).getId());
+        assertNull(bookingsMap.get(ActualItemBooking.NEXT));
+    }
+
+    @Test
+    public void getLastAndNextBookingByItemFromCacheTest() {
+        Map<ActualItemBooking, BookingDtoShort> bookingsMap;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        Item item = itemService.getItem(itemService.addItemDto(makeDefaultItem(), user.getId()).getId());
+
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userService.addUserDto(booker);
+
+        BookingDtoRequest dtoRequest = makeDefaultBookingDtoRequest(item.getId());
+        dtoRequest.setStart(LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS));
+        BookingDto bookingDto = bookingService.addBooking(dtoRequest, booker.getId());
+
+        bookingsMap = bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertNull(bookingsMap.get(ActualItemBooking.LAST));
+        assertEquals(bookingDto.getId(), bookingsMap.get(ActualItemBooking.NEXT).getId());
+
+        statistics.clear();
+        bookingsMap = bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertEquals(bookingDto.getId(), bookingsMap.get(ActualItemBooking.NEXT).getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Запись истекает в момент начала бронирования
+        cacheTicker.advance(Duration.ofMinutes(4));
+        bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        cacheTicker.advance(Duration.ofMinutes(2));
+        bookingsMap = bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertEquals(bookingDto.getId(), bookingsMap.get(ActualItemBooking.NEXT).getId());
+
+        bookingService.setApproval(bookingDto.getId(), false, user.getId());
+        bookingsMap = bookingService.getLastAndNextBookingByItem(item, user.getId());
+        assertNull(bookingsMap.get(ActualItemBooking.LAST));
+        assertNull(bookingsMap.get(ActualItemBooking.NEXT));
+    }
+
+    @Test
+    public void getLastAndNextBookingsByItemsTest() {
+        Map<Long, Map<ActualItemBooking, BookingDtoShort>> bookingsByItem;
+        LocalDateTime now = LocalDateTime.now();
+
+        UserDto owner = userService.addUserDto(makeDefaultUser());
+        Item item1 = itemService.getItem(itemService.addItemDto(makeDefaultItem(), owner.getId()).getId());
+        Item item2 = itemService.getItem(itemService.addItemDto(makeDefaultItem(), owner.getId()).getId());
+        Item item3 = itemService.getItem(itemService.addItemDto(makeDefaultItem(), owner.getId()).getId());
+
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userService.addUserDto(booker);
+
+        BookingDtoRequest currentRequest = makeDefaultBookingDtoRequest(item1.getId());
+        currentRequest.setStart(now.minusHours(1));
+        currentRequest.setEnd(now.plusHours(1));
+        BookingDto currentBooking = bookingService.addBooking(currentRequest, booker.getId());
+
+        BookingDtoRequest futureRequest = makeDefaultBookingDtoRequest(item1.getId());
+        futureRequest.setStart(now.plusDays(1));
+        futureRequest.setEnd(now.plusDays(2));
+        BookingDto futureBooking = bookingService.addBooking(futureRequest, booker.getId());
+
+        BookingDtoRequest pastRequest = makeDefaultBookingDtoRequest(item2.getId());
+        pastRequest.setStart(now.minusDays(2));
+        pastRequest.setEnd(now.minusDays(1));
+        BookingDto pastBooking = bookingService.addBooking(pastRequest, booker.getId());
+
+        bookingsByItem = bookingService.getLastAndNextBookingsByItems(List.of(item1, item2, item3), owner.getId());
+        assertEquals(currentBooking.getId(), bookingsByItem.get(item1.getId()).get(ActualItemBooking.LAST).getId());
+        assertEquals(booker.getId(), bookingsByItem.get(item1.getId()).get(ActualItemBooking.LAST).getBookerId());
+        assertEquals(futureBooking.getId(), bookingsByItem.get(item1.getId()).get(ActualItemBooking.NEXT).getId());
+        assertEquals(pastBooking.getId(), bookingsByItem.get(item2.getId()).get(ActualItemBooking.LAST).getId());
+        assertNull(bookingsByItem.get(item2.getId()).get(ActualItemBooking.NEXT));
+        assertNull(bookingsByItem.get(item3.getId()).get(ActualItemBooking.LAST));
+        assertNull(bookingsByItem.get(item3.getId()).get(ActualItemBooking.NEXT));
+
+        bookingsByItem = bookingService.getLastAndNextBookingsByItems(List.of(item1, item2), booker.getId());
+        assertNull(bookingsByItem.get(item1.getId()).get(ActualItemBooking.LAST));
+        assertNull(bookingsByItem.get(item1.getId()).get(ActualItemBooking.NEXT));
+    }
+
+    @Test
+    public void getBookingsByBookerAndStatusAfterCursorTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long userId = user.getId();
+
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("newEmail@mail.ru");
+        booker = userService.addUserDto(booker);
+        long bookerId = booker.getId();
+
+        for (int i = 0; i < 5; i++) {
+            ItemDto item = itemService.addItemDto(makeDefaultItem(), userId);
+            BookingDtoRequest request = makeDefaultBookingDtoRequest(item.getId());
+            request.setStart(request.getStart().plusDays(i % 3));
+            request.setEnd(request.getEnd().plusDays(i % 3));
+            bookingService.addBooking(request, bookerId);
+        }
+        List<BookingDto> allBookings = List.copyOf(bookingService.getBookingsUserAndState(
+                bookerId, null, BookingStatus.ALL.toString(), 0, Integer.MAX_VALUE));
+
+        BookingPageDto page1 = bookingService.getBookingsUserAndStateAfter(
+                bookerId, null, BookingStatus.ALL.toString(), null, 2);
+        BookingPageDto page2 = bookingService.getBookingsUserAndStateAfter(
+                bookerId, null, BookingStatus.ALL.toString(), page1.getNext(), 2);
+        BookingPageDto page3 = bookingService.getBookingsUserAndStateAfter(
+                bookerId, null, BookingStatus.ALL.toString(), page2.getNext(), 2);
+
+        assertEquals(2, page1.getBookings().size());
+        assertEquals(2, page2.getBookings().size());
+        assertEquals(1, page3.getBookings().size());
+        assertNull(page3.getNext());
+        assertEquals(Set.copyOf(allBookings), Stream.of(page1, page2, page3)
+                .flatMap(page -> page.getBookings().stream())
+                .collect(Collectors.toSet()));
+
+        BookingPageDto ownerPage = bookingService.getBookingsUserAndStateAfter(
+                null, userId, BookingStatus.FUTURE.toString(), page1.getNext(), 10);
+        assertEquals(3, ownerPage.getBookings().size());
+        assertNull(ownerPage.getNext());
+    }
+
+    @Test
+    public void getBookingsPageStatementCountTest() {
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("booker@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+
+        for (int i = 0; i < 100; i++) {
+            UserDto owner = makeDefaultUser();
+            owner.setEmail("owner" + i + "@mail.ru");
+            ItemDto item = itemService.addItemDto(makeDefaultItem(), userService.addUserDto(owner).getId());
+            bookingService.addBooking(makeDefaultBookingDtoRequest(item.getId()), bookerId);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertEquals(10, bookingService.getBookingsUserAndState(
+                bookerId, null, BookingStatus.ALL.toString(), 0, 10).size());
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(100, bookingService.getBookingsUserAndState(
+                bookerId, null, BookingStatus.ALL.toString(), 0, 100).size());
+        assertEquals(smallPageStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void addBookingsStatementCountTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        long itemId = itemService.addItemDto(makeDefaultItem(), user.getId()).getId();
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("booker@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Первые два пакета еще и выделяют блок идентификаторов из последовательности
+        bookingService.addBookings(makeConsecutiveBookingDtoRequests(itemId, 1, 1), bookerId);
+        bookingService.addBookings(makeConsecutiveBookingDtoRequests(itemId, 2, 1), bookerId);
+
+        statistics.clear();
+        bookingService.addBookings(makeConsecutiveBookingDtoRequests(itemId, 3, 5), bookerId);
+        long smallBatchStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<BookingBatchResultDto> results = bookingService.addBookings(
+                makeConsecutiveBookingDtoRequests(itemId, 10, 40), bookerId);
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BookingBatchStatus.CREATED));
+        assertEquals(smallBatchStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void exportBookingsWithItemRequestTest() throws Exception {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        UserDto booker = makeDefaultUser();
+        booker.setEmail("booker@mail.ru");
+        long bookerId = userService.addUserDto(booker).getId();
+        long requestId = itemRequestService.addRequest(
+                ItemRequestDto.builder().description("Нужна дрель").build(), bookerId).getId();
+        ItemDto item = makeDefaultItem();
+        item.setRequestId(requestId);
+        long itemId = itemService.addItemDto(item, user.getId()).getId();
+        bookingService.addBooking(makeDefaultBookingDtoRequest(itemId), bookerId);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bookingService.exportBookings(bookerId, null, () -> output);
+
+        BookingDto exported = objectMapper.readValue(output.toString(StandardCharsets.UTF_8), BookingDto.class);
+        assertEquals(itemId, exported.getItem().getId());
+        assertEquals(requestId, exported.getItem().getRequestId());
+    }
+
+    @Test
+    public void shouldBeExceptionForWrongCursor() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+
+        assertThrows(ValidationException.class, () -> bookingService.getBookingsUserAndStateAfter(
+                user.getId(), null, BookingStatus.ALL.toString(), "wrong cursor", 10));
+    }
+
     @Test
     public void setApprovalTest() {
         UserDto user = userService.addUserDto(makeDefaultUser());
@@ -401,6 +891,19 @@ public class BookingServiceTest {
                 () -> bookingService.setApproval(booking.getId(), false, user.getId()));
     }
 
+    private List<BookingDtoRequest> makeConsecutiveBookingDtoRequests(long itemId, int startDay, int count) {
+        LocalDateTime start = LocalDateTime.now().plusDays(startDay).truncatedTo(ChronoUnit.SECONDS);
+
+        return Stream.iterate(start, time -> time.plusDays(1))
+                .limit(count)
+                .map(time -> BookingDtoRequest.builder()
+                        .itemId(itemId)
+                        .start(time)
+                        .end(time.plusHours(1))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     private BookingDtoRequest makeDefaultBookingDtoRequest(long itemId) {
         return BookingDtoRequest.builder()
                 .itemId(itemId)
@@ -423,4 +926,28 @@ public class BookingServiceTest {
                 .email("user@mail.ru")
                 .build();
     }
+
+    @TestConfiguration
+    static class CacheTickerConfig {
+
+        @Bean
+        @Primary
+        public ManualTicker manualCacheTicker() {
+            return new ManualTicker();
+        }
+    }
+
+    static class ManualTicker implements Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VersionedCacheTest {
+
+    private final VersionedCache cache = new VersionedCache(new ConcurrentMapCache("test"));
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldNotPutValueLoadedBeforeEvictionTest() {
+        long loadVersion = cache.getVersion();
+
+        cache.evict(1L);
+        assertFalse(cache.put(1L, "old", loadVersion));
+        assertNull(cache.get(1L, String.class));
+
+        assertTrue(cache.put(1L, "new", cache.getVersion()));
+        assertEquals("new", cache.get(1L, String.class));
+    }
+
+    @Test
+    public void shouldEvictAfterTransactionCompletionTest() {
+        cache.put(1L, "old", cache.getVersion());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+        long loadVersion = cache.getVersion();
+        assertEquals("old", cache.get(1L, String.class));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(
+                        TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertNull(cache.get(1L, String.class));
+        assertFalse(cache.put(1L, "old", loadVersion));
+    }
+}
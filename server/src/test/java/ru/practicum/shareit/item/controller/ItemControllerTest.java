@@ -18,10 +18,14 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -69,6 +73,25 @@ public class ItemControllerTest {
         assertEquals(itemDto, mapper.readValue(servletResponse.getContentAsString(), ItemDto.class));
     }
 
+    @Test
+    public void importItemsTest() throws Exception {
+        long userId = addDefaultUser("email@mail.ru").getId();
+        String lines = mapper.writeValueAsString(makeDefaultItemDto()) + "\n"
+                + "{\"name\": \"Item name\"}\n";
+
+        MockHttpServletResponse servletResponse = mvc.perform(
+                        post(defaultUri + "/import")
+                                .headers(getDefaultHeader(userId))
+                                .content(lines)
+                                .contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(new ItemImportResultDto(1, List.of(new ItemImportErrorDto(2, "Заполните описание"))),
+                mapper.readValue(servletResponse.getContentAsString(StandardCharsets.UTF_8),
+                        ItemImportResultDto.class));
+    }
+
     @Test
     public void shouldBeExceptionForAddItemWithoutOwner() throws Exception {
         MockHttpServletResponse servletResponse = mvc.perform(
@@ -139,6 +162,46 @@ public class ItemControllerTest {
         assertEquals(HttpStatus.NOT_FOUND.value(), servletResponse.getStatus());
     }
 
+    @Test
+    public void getItemAvailabilityTest() throws Exception {
+        long userId = addDefaultUser("email@mail.ru").getId();
+        long bookerId = addDefaultUser("newEmail@mail.ru").getId();
+        long itemId = addItem(makeDefaultItemDto(), userId).getId();
+        BookingDtoRequest bookingDtoRequest = makeDefaultBookingDtoRequest(itemId);
+        addBooking(bookingDtoRequest, bookerId);
+        LocalDateTime from = bookingDtoRequest.getStart().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = bookingDtoRequest.getEnd().plusHours(1);
+
+        MockHttpServletResponse servletResponse = mvc.perform(
+                        get(defaultUri + "/" + itemId + "/availability")
+                                .headers(getDefaultHeader(bookerId))
+                                .param("from", from.toString())
+                                .param("to", to.toString()))
+                .andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(List.of(new FreeWindowDto(from, bookingDtoRequest.getStart()),
+                        new FreeWindowDto(bookingDtoRequest.getEnd(), to)),
+                mapper.readValue(servletResponse.getContentAsString(), new TypeReference<List<FreeWindowDto>>() {
+                }));
+    }
+
+    @Test
+    public void shouldBeExceptionForItemAvailabilityWithWrongPeriod() throws Exception {
+        long userId = addDefaultUser("email@mail.ru").getId();
+        long itemId = addItem(makeDefaultItemDto(), userId).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(2);
+
+        MockHttpServletResponse servletResponse = mvc.perform(
+                        get(defaultUri + "/" + itemId + "/availability")
+                                .headers(getDefaultHeader(userId))
+                                .param("from", from.toString())
+                                .param("to", from.minusDays(1).toString()))
+                .andReturn().getResponse();
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), servletResponse.getStatus());
+    }
+
     @Test
     public void searchingAvailableItemsTest() throws Exception {
         addDefaultUser("email@mail.ru");
@@ -315,7 +378,7 @@ public class ItemControllerTest {
 
     private BookingDtoRequest makeDefaultBookingDtoRequest(long itemId) {
         return BookingDtoRequest.builder()
-                .start(LocalDateTime.now().plusDays(1))
+                .start(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS))
                 .end(LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.SECONDS))
                 .itemId(itemId)
                 .build();
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "shareit.search.engine=index")
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class InvertedIndexItemSearchEngineTest {
+
+    private UserService userService;
+    private ItemService itemService;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private InvertedIndexItemSearchEngine searchEngine;
+
+    @Test
+    public void searchAvailableItemsTest() {
+        long userId = userService.addUserDto(makeDefaultUser("user@mail.ru")).getId();
+
+        long drillId = itemService.addItemDto(makeItem("Дрель", "Аккумуляторная дрель"), userId).getId();
+        long sawId = itemService.addItemDto(makeItem("Пила", "Дисковая пила, без аккумулятора"), userId).getId();
+        ItemDto unavailable = makeItem("Дрель ударная", "Сломана");
+        unavailable.setAvailable(false);
+        itemService.addItemDto(unavailable, userId);
+
+        assertEquals(List.of(drillId), search("ДРЕЛЬ", 0, 10));
+        assertEquals(List.of(drillId, sawId), search("аккумулятор", 0, 10));
+        assertEquals(List.of(sawId), search("аккумулятор", 1, 10));
+        assertEquals(List.of(drillId), search("дрель аккум", 0, 10));
+        assertEquals(List.of(), search("отвертка", 0, 10));
+
+        itemService.updateItemDto(ItemDto.builder().name("Шуруповерт").build(), drillId, userId);
+        assertEquals(List.of(drillId), search("шуруп", 0, 10));
+        assertEquals(List.of(drillId), search("дрель", 0, 10));
+
+        itemService.updateItemDto(ItemDto.builder().available(false).build(), drillId, userId);
+        assertEquals(List.of(sawId), search("аккумулятор", 0, 10));
+    }
+
+    @Test
+    public void searchByWordPartsTest() {
+        long userId = userService.addUserDto(makeDefaultUser("user@mail.ru")).getId();
+
+        long drillId = itemService.addItemDto(makeItem("Дрель", "Ударная"), userId).getId();
+        long ladderId = itemService.addItemDto(makeItem("Стремянка", "Алюминиевая"), userId).getId();
+
+        assertEquals(List.of(drillId, ladderId), search("р", 0, 10));
+        assertEquals(List.of(drillId), search("ль", 0, 10));
+        assertEquals(List.of(ladderId), search("емя", 0, 10));
+        assertEquals(List.of(ladderId), search("люмини", 0, 10));
+        assertEquals(List.of(), search("люминий", 0, 10));
+
+        itemService.updateItemDto(ItemDto.builder().name("Перфоратор").build(), drillId, userId);
+        assertEquals(List.of(), search("ль", 0, 10));
+        assertEquals(List.of(drillId), search("ратор", 0, 10));
+    }
+
+    @Test
+    public void buildIndexTest() {
+        User user = userRepository.save(User.builder().name("User Name").email("user@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .owner(user)
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+        assertEquals(List.of(), search("item", 0, 10));
+
+        searchEngine.buildIndex();
+        assertEquals(List.of(item.getId()), search("item", 0, 10));
+    }
+
+    @Test
+    public void shouldSkipDeletedItemsTest() {
+        long userId1 = userService.addUserDto(makeDefaultUser("user1@mail.ru")).getId();
+        long userId2 = userService.addUserDto(makeDefaultUser("user2@mail.ru")).getId();
+
+        itemService.addItemDto(makeItem("Item name", "Item description"), userId1);
+        long itemId2 = itemService.addItemDto(makeItem("Item name", "Item description"), userId2).getId();
+        long itemId3 = itemService.addItemDto(makeItem("Item name", "Item description"), userId2).getId();
+
+        userService.deleteUserById(userId1);
+        assertEquals(List.of(itemId2), search("item", 0, 1));
+        assertEquals(List.of(itemId2, itemId3), search("item", 0, 10));
+    }
+
+    @Test
+    public void shouldNotDropItemsOnStaleReadTest() {
+        long userId = userService.addUserDto(makeDefaultUser("user@mail.ru")).getId();
+
+        long itemId1 = itemService.addItemDto(makeItem("Item name", "Item description"), userId).getId();
+        long itemId2 = itemService.addItemDto(makeItem("Item name", "Item description"), userId).getId();
+        long itemId3 = itemService.addItemDto(makeItem("Item name", "Item description"), userId).getId();
+
+        // Изменения в обход индекса, как если бы поиск прочитал вещь до коммита ее обновления
+        setAvailable(itemId1, false);
+        assertEquals(List.of(itemId2, itemId3), search("item", 0, 2));
+
+        setAvailable(itemId1, true);
+        assertEquals(List.of(itemId1, itemId2), search("item", 0, 2));
+    }
+
+    private List<Long> search(String text, int from, int size) {
+        return searchEngine.searchAvailableItems(text, from, size).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void setAvailable(long itemId, boolean available) {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        item.setAvailable(available);
+        itemRepository.save(item);
+    }
+
+    private ItemDto makeItem(String name, String description) {
+        return ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+
+    private UserDto makeDefaultUser(String email) {
+        return UserDto.builder()
+                .name("User Name")
+                .email(email)
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -15,17 +17,30 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@SpringBootTest
+@SpringBootTest(properties = {"shareit.item.comments-per-item=2", "shareit.item.import-chunk-size=2",
+        "shareit.cache.item-search.max-ids=2", "spring.jpa.properties.hibernate.generate_statistics=true"})
 @AllArgsConstructor(onConstructor_ = @Autowired)
 @AutoConfigureTestDatabase
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -35,6 +50,8 @@ public class ItemServiceTest {
     private UserService userService;
     private ItemService itemService;
     private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     public void addItemTest() {
@@ -45,6 +62,26 @@ public class ItemServiceTest {
         assertEquals(item, itemService.getItemDto(item.getId(), user.getId()));
     }
 
+    @Test
+    public void getItemFromSecondLevelCacheTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        long itemId = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        itemService.getItem(itemId);
+        statistics.clear();
+        itemService.getItem(itemId);
+        itemService.getItem(itemId);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+
+        itemService.updateItemDto(ItemDto.builder().name("New name").build(), itemId, userId);
+        assertEquals("New name", itemService.getItem(itemId).getName());
+
+        userService.deleteUserById(userId);
+        assertThrows(NotFoundException.class, () -> itemService.getItem(itemId));
+    }
+
     @Test
     public void shouldBeExceptionForAddItemWithoutOwner() {
         UserDto user = makeDefaultUser();
@@ -97,6 +134,82 @@ public class ItemServiceTest {
         assertEquals(List.of(comment), itemService.getItemDto(itemId, userId).getComments());
     }
 
+    @Test
+    public void getItemDtoForNonOwnerFromCacheTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        long bookerId = userService.addUserDto(
+                UserDto.builder().name("Booker Name").email("booker@mail.ru").build()).getId();
+        long itemId = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        BookingDto bookingDto = bookingService.addBooking(makeDefaultBookingDtoRequest(itemId), bookerId);
+        bookingService.setApproval(bookingDto.getId(), true, userId);
+
+        itemService.getItemDto(itemId, bookerId);
+        statistics.clear();
+        assertNull(itemService.getItemDto(itemId, bookerId).getLastBooking());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(bookingDto.getId(), itemService.getItemDto(itemId, userId).getLastBooking().getId());
+
+        CommentDto comment = itemService.addCommentDto(makeDefaultComment(), bookerId, itemId);
+        assertEquals(List.of(comment), itemService.getItemDto(itemId, bookerId).getComments());
+
+        itemService.updateItemDto(ItemDto.builder().name("New name").build(), itemId, userId);
+        assertEquals("New name", itemService.getItemDto(itemId, bookerId).getName());
+
+        userService.updateUserDto(UserDto.builder().name("New Booker").build(), bookerId);
+        assertEquals("New Booker", itemService.getItemDto(itemId, bookerId).getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    public void searchAvailableItemsFromCacheTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        long itemId1 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        long itemId2 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        ItemDto unavailable = makeDefaultItem();
+        unavailable.setAvailable(false);
+        itemService.addItemDto(unavailable, userId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        assertEquals(List.of(itemId1, itemId2), search(userId, "default", 0, 10));
+        statistics.clear();
+        assertEquals(List.of(itemId2), search(userId, "DEFAULT", 1, 10));
+        assertEquals(0, getSearchIdsQueryCount(statistics));
+
+        itemService.updateItemDto(ItemDto.builder().available(false).build(), itemId1, userId);
+        assertEquals(List.of(itemId2), search(userId, "default", 0, 10));
+
+        // С max-ids=2 третья вещь уже не помещается в кэш
+        long itemId3 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        long itemId4 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        assertEquals(List.of(itemId2, itemId3), search(userId, "default", 0, 2));
+        assertEquals(List.of(itemId4), search(userId, "default", 2, 2));
+    }
+
+    @Test
+    public void getOwnerItemsWithLatestCommentsTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+        UserDto booker = userService.addUserDto(UserDto.builder().name("Booker Name").email("booker@mail.ru").build());
+        long userId = user.getId();
+        long bookerId = booker.getId();
+
+        long itemId1 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+        long itemId2 = itemService.addItemDto(makeDefaultItem(), userId).getId();
+
+        BookingDto bookingDto = bookingService.addBooking(makeDefaultBookingDtoRequest(itemId1), bookerId);
+        bookingService.setApproval(bookingDto.getId(), true, userId);
+
+        itemService.addCommentDto(makeDefaultComment(), bookerId, itemId1);
+        CommentDto comment2 = itemService.addCommentDto(makeDefaultComment(), bookerId, itemId1);
+        CommentDto comment3 = itemService.addCommentDto(makeDefaultComment(), bookerId, itemId1);
+
+        List<ItemDto> items = List.copyOf(itemService.getOwnerItems(userId, 0, Integer.MAX_VALUE));
+        assertEquals(List.of(comment2, comment3), items.get(0).getComments());
+        assertEquals("Booker Name", items.get(0).getComments().get(0).getAuthorName());
+        assertEquals(List.of(), items.get(1).getComments());
+        assertEquals(itemId2, items.get(1).getId());
+    }
+
     @Test
     public void shouldBeExceptionForCommenterWithoutBooking() {
         UserDto user = userService.addUserDto(makeDefaultUser());
@@ -133,6 +246,98 @@ public class ItemServiceTest {
                 itemService.getOwnerItems(userDto2.getId(), 0, Integer.MAX_VALUE));
     }
 
+    @Test
+    public void getOwnerItemsPageTest() {
+        UserDto user = userService.addUserDto(makeDefaultUser());
+
+        ItemDto item1 = itemService.addItemDto(makeDefaultItem(), user.getId());
+        item1.setComments(List.of());
+        ItemDto item2 = itemService.addItemDto(makeDefaultItem(), user.getId());
+        item2.setComments(List.of());
+        ItemDto item3 = itemService.addItemDto(makeDefaultItem(), user.getId());
+        item3.setComments(List.of());
+
+        assertEquals(List.of(item2), itemService.getOwnerItems(user.getId(), 1, 1));
+        assertEquals(List.of(item2, item3), itemService.getOwnerItems(user.getId(), 1, 5));
+        assertEquals(List.of(item1, item2, item3), itemService.getOwnerItems(user.getId(), 0, null));
+    }
+
+    @Test
+    public void importItemsFromLinesTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        long requestId = itemRequestService.addRequest(
+                ItemRequestDto.builder().description("Нужна дрель").build(), userId).getId();
+        String lines = "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true, "
+                + "\"requestId\": " + requestId + "}\n"
+                + "{\"name\": \"\", \"description\": \"Без названия\", \"available\": true}\n"
+                + "\n"
+                + "{\"name\": \"Пила\", \"description\": \"Дисковая\", \"available\": false}\n"
+                + "not json\n"
+                + "{\"name\": \"Лестница\", \"description\": \"3 м\", \"available\": true, \"requestId\": 100}\n"
+                + "{\"name\": \"Молоток\", \"description\": \"Стальной\", \"available\": true}";
+
+        ItemImportResultDto result = itemService.importItems(toStream(lines), true, userId);
+
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(2L, 5L, 6L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList()));
+        Collection<ItemDto> items = itemService.getOwnerItems(userId, 0, null);
+        assertEquals(List.of("Дрель", "Пила", "Молоток"), items.stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toList()));
+        assertEquals(requestId, items.iterator().next().getRequestId());
+    }
+
+    @Test
+    public void importItemsFromArrayTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        String array = "[\n"
+                + "  {\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true},\n"
+                + "  {\"name\": \"Пила\", \"description\": \"Дисковая\"},\n"
+                + "  {\"name\": \"Лестница\", \"description\": \"3 м\", \"available\": \"maybe\"},\n"
+                + "  {\"name\": \"Молоток\", \"description\": \"Стальной\", \"available\": true},\n"
+                + "  {\"name\": \"Отвертка\"";
+
+        ItemImportResultDto result = itemService.importItems(toStream(array), false, userId);
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(3L, 4L, 6L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList()));
+        assertEquals(2, itemService.getOwnerItems(userId, 0, null).size());
+        assertThrows(NotFoundException.class, () -> itemService.importItems(toStream(array), false, 100L));
+    }
+
+    @Test
+    public void importItemsWithTooLongFieldsTest() {
+        long userId = userService.addUserDto(makeDefaultUser()).getId();
+        String lines = "{\"name\": \"" + "н".repeat(256) + "\", \"description\": \"Ударная\", \"available\": true}\n"
+                + "{\"name\": \"Пила\", \"description\": \"" + "о".repeat(1025) + "\", \"available\": true}\n"
+                + "{\"name\": \"" + "н".repeat(255) + "\", \"description\": \"" + "о".repeat(1024)
+                + "\", \"available\": true}";
+
+        ItemImportResultDto result = itemService.importItems(toStream(lines), true, userId);
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(1L, 2L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList()));
+    }
+
+    private List<Long> search(long userId, String text, int from, int size) {
+        return itemService.searchAvailableItems(userId, text, from, size).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private long getSearchIdsQueryCount(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.startsWith("SELECT i.id FROM Item i"))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+
     private BookingDtoRequest makeDefaultBookingDtoRequest(long itemId) {
         return BookingDtoRequest.builder()
                 .itemId(itemId)
@@ -141,6 +346,10 @@ public class ItemServiceTest {
                 .build();
     }
 
+    private InputStream toStream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
     private CommentDto makeDefaultComment() {
         return CommentDto.builder()
                 .text("default comment")
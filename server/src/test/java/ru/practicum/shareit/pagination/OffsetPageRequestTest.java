@@ -0,0 +1,37 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffsetPageRequestTest {
+
+    @Test
+    public void offsetAndSizeTest() {
+        Pageable pageable = OffsetPageRequest.of(15, 10, Sort.by("id"));
+
+        assertEquals(15, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+        assertEquals(1, pageable.getPageNumber());
+        assertEquals(Sort.by("id"), pageable.getSort());
+        assertTrue(pageable.hasPrevious());
+        assertEquals(25, pageable.next().getOffset());
+        assertEquals(5, pageable.previousOrFirst().getOffset());
+        assertEquals(0, pageable.first().getOffset());
+        assertEquals(30, pageable.withPage(3).getOffset());
+    }
+
+    @Test
+    public void pageSizeShouldBeLimitedTest() {
+        assertEquals(OffsetPageRequest.MAX_PAGE_SIZE, OffsetPageRequest.of(0, null).getPageSize());
+        assertEquals(OffsetPageRequest.MAX_PAGE_SIZE, OffsetPageRequest.of(0, Integer.MAX_VALUE).getPageSize());
+    }
+
+    @Test
+    public void shouldBeExceptionForWrongOffsetOrSize() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
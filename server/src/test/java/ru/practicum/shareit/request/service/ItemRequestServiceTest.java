@@ -8,6 +8,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,6 +31,7 @@ public class ItemRequestServiceTest {
 
     private UserService userService;
     private ItemRequestService requestService;
+    private ItemService itemService;
 
     @Test
     public void addRequestTest() {
@@ -105,6 +109,42 @@ public class ItemRequestServiceTest {
                 requestService.getOtherUsersRequests(userDto2.getId(), 0, Integer.MAX_VALUE));
     }
 
+    @Test
+    public void getOtherUsersRequestsWithItemsTest() {
+        long requesterId = userService.addUserDto(makeDefaultUser()).getId();
+
+        UserDto owner = makeDefaultUser();
+        owner.setEmail("newEmail@mail.ru");
+        long ownerId = userService.addUserDto(owner).getId();
+
+        long requestId1 = requestService.addRequest(makeDefaultRequest(), requesterId).getId();
+        long requestId2 = requestService.addRequest(makeDefaultRequest(), requesterId).getId();
+
+        ItemDto item1 = ItemDto.builder().name("item1").description("description").available(true)
+                .requestId(requestId1).build();
+        ItemDto item2 = ItemDto.builder().name("item2").description("description").available(true)
+                .requestId(requestId1).build();
+        long itemId1 = itemService.addItemDto(item1, ownerId).getId();
+        long itemId2 = itemService.addItemDto(item2, ownerId).getId();
+
+        List<ItemRequestDto> requests = List.copyOf(
+                requestService.getOtherUsersRequests(ownerId, 0, Integer.MAX_VALUE));
+        ItemRequestDto withItems = requests.stream()
+                .filter(request -> request.getId() == requestId1)
+                .findFirst()
+                .orElseThrow();
+        ItemRequestDto withoutItems = requests.stream()
+                .filter(request -> request.getId() == requestId2)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(Set.of(itemId1, itemId2), withItems.getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toSet()));
+        assertEquals(Set.of(), withoutItems.getItems());
+        assertEquals(requests, List.copyOf(requestService.getOwnItemRequests(requesterId)));
+    }
+
     @Test
     public void shouldBeExceptionForGetOtherUsersRequestFromNotFoundUser() {
         assertThrows(NotFoundException.class,
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -11,9 +14,11 @@ import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
+
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AllArgsConstructor(onConstructor_ = @Autowired)
 @AutoConfigureTestDatabase
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -21,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.*;
 public class UserServiceTest {
 
     private UserService service;
+    private EntityManagerFactory entityManagerFactory;
+    private MeterRegistry meterRegistry;
 
     @Test
     public void deleteUserTest() {
@@ -32,6 +39,29 @@ public class UserServiceTest {
         assertTrue(service.getAllUsersDto().isEmpty());
     }
 
+    @Test
+    public void getUserByIdFromCacheTest() {
+        long userId = service.addUserDto(makeDefaultUser()).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        service.getUserById(userId);
+        statistics.clear();
+        assertEquals("User Name", service.getUserById(userId).getName());
+        assertFalse(service.userNotFound(userId));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, meterRegistry.get("cache.gets")
+                .tags("cache", "users", "result", "hit")
+                .functionCounter()
+                .count());
+
+        service.updateUserDto(UserDto.builder().name("New Name").build(), userId);
+        assertEquals("New Name", service.getUserById(userId).getName());
+
+        service.deleteUserById(userId);
+        assertTrue(service.userNotFound(userId));
+        assertThrows(NotFoundException.class, () -> service.getUserById(userId));
+    }
+
     @Test
     public void shouldBeExceptionForDuplicateEmail() {
         service.addUserDto(makeDefaultUser());
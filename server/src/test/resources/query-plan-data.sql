@@ -0,0 +1,18 @@
+INSERT INTO users (user_id, user_name, email)
+SELECT X, 'User Name', CONCAT('user', X, '@mail.ru') FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO requests (request_id, requester, description, created)
+SELECT X, MOD(X, 1000) + 1, 'Request description', DATEADD('DAY', -X, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO items (item_id, owner_id, item_name, description, available, for_request)
+SELECT X, MOD(X, 1000) + 1, 'Item name', 'Item description', TRUE, NULL FROM SYSTEM_RANGE(1, 5000);
+
+INSERT INTO bookings (booking_id, for_item, by_user, start_time, end_time, approved)
+SELECT X, MOD(X, 5000) + 1, MOD(X * 7, 1000) + 1,
+       DATEADD('DAY', X - 10000, CURRENT_TIMESTAMP), DATEADD('DAY', X - 9999, CURRENT_TIMESTAMP), TRUE
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO comments (comment_id, author_id, commented_item_id, comment_text, created)
+SELECT X, MOD(X, 1000) + 1, MOD(X, 5000) + 1, 'Comment text', CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 5000);
+
+ANALYZE;